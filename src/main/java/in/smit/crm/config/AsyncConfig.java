@@ -0,0 +1,67 @@
+package in.smit.crm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Async Configuration
+ * Bounded thread pool for background jobs started from admin requests (course deletion, etc.)
+ * A full queue rejects new jobs instead of piling them up
+ * Second pool runs the parallel reads of page fan-outs (student profile)
+ * Third pool, one thread per core, runs CPU-bound work of jobs (password hashing)
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Value("${app.jobs.threads:2}")
+    private int threads;
+
+    @Value("${app.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.fanout.threads:8}")
+    private int fanoutThreads;
+
+    @Value("${app.fanout.queue-capacity:100}")
+    private int fanoutQueueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor jobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    // Each task holds a DB connection while it runs, keep threads below the connection pool size
+    // A full queue runs the read on the request thread instead of failing the page
+    @Bean
+    public ThreadPoolTaskExecutor fanoutExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fanoutThreads);
+        executor.setMaxPoolSize(fanoutThreads);
+        executor.setQueueCapacity(fanoutQueueCapacity);
+        executor.setThreadNamePrefix("fanout-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // Tasks are queued by a running job a chunk at a time, so the queue stays bounded by the chunk size
+    @Bean
+    public ThreadPoolTaskExecutor hashExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setThreadNamePrefix("hash-");
+        return executor;
+    }
+}
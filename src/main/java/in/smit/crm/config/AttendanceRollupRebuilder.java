@@ -0,0 +1,26 @@
+package in.smit.crm.config;
+
+import in.smit.crm.service.AttendanceRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attendance Roll-up Rebuilder
+ * Recomputes attendance_daily_rollup from the attendance table on startup
+ * Enable only for backfills: --app.attendance.rollup.rebuild=true
+ */
+@Component
+@ConditionalOnProperty(name = "app.attendance.rollup.rebuild", havingValue = "true")
+public class AttendanceRollupRebuilder implements CommandLineRunner {
+
+    @Autowired
+    private AttendanceRollupService attendanceRollupService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int buckets = attendanceRollupService.rebuild();
+        System.out.println("✅ Attendance roll-up rebuilt: " + buckets + " buckets");
+    }
+}
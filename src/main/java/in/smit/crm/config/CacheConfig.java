@@ -0,0 +1,60 @@
+package in.smit.crm.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cache Configuration
+ * Bounded in-process caches for rarely changing reference data (course catalog)
+ * and for the logged-in student's profile, read by every student portal page
+ * Evictions wait for the writing transaction to commit, so a concurrent read can't re-cache old rows
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String COURSES = "courses";
+
+    public static final String ACTIVE_COURSES = "activeCourses";
+
+    public static final String UPCOMING_COURSES = "upcomingCourses";
+
+    // Keyed by user ID
+    public static final String STUDENT_PROFILES = "studentProfiles";
+
+    @Value("${app.cache.max-size:100}")
+    private long maxSize;
+
+    @Value("${app.cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    // One entry per recently active student
+    @Value("${app.cache.student-profiles.max-size:10000}")
+    private long studentProfilesMaxSize;
+
+    @Value("${app.cache.student-profiles.ttl-minutes:30}")
+    private long studentProfilesTtlMinutes;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(COURSES, ACTIVE_COURSES, UPCOMING_COURSES);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats());
+        cacheManager.registerCustomCache(STUDENT_PROFILES, Caffeine.newBuilder()
+                .maximumSize(studentProfilesMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(studentProfilesTtlMinutes))
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,23 @@
+package in.smit.crm.config;
+
+import in.smit.crm.service.CourseService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Course Seats Initializer
+ * Recounts taken seats from ACTIVE enrollments on startup (covers rows created before capacity existed)
+ */
+@Component
+public class CourseSeatInitializer implements CommandLineRunner {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int courses = courseService.recountAllSeats();
+        System.out.println("✅ Course seats recounted: " + courses + " courses");
+    }
+}
@@ -0,0 +1,25 @@
+package in.smit.crm.config;
+
+import in.smit.crm.service.EnrollmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Enrollment Active Flag Initializer
+ * Flags ACTIVE enrollments created before uk_enrollment_active existed, so the constraint covers them too
+ */
+@Component
+public class EnrollmentActiveFlagInitializer implements CommandLineRunner {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int flagged = enrollmentService.flagLegacyActiveEnrollments();
+        if (flagged > 0) {
+            System.out.println("✅ Active enrollments flagged: " + flagged);
+        }
+    }
+}
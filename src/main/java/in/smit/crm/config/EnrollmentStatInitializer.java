@@ -0,0 +1,41 @@
+package in.smit.crm.config;
+
+import in.smit.crm.repository.CourseEnrollmentStatRepository;
+import in.smit.crm.repository.EnrollmentMonthlyStatRepository;
+import in.smit.crm.repository.EnrollmentRepository;
+import in.smit.crm.service.EnrollmentStatService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Enrollment Stats Initializer
+ * Backfills enrollment_monthly_stat and course_enrollment_stat on the first start after each table was introduced
+ */
+@Component
+public class EnrollmentStatInitializer implements CommandLineRunner {
+
+    @Autowired
+    private EnrollmentMonthlyStatRepository enrollmentMonthlyStatRepository;
+
+    @Autowired
+    private CourseEnrollmentStatRepository courseEnrollmentStatRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EnrollmentStatService enrollmentStatService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (enrollmentMonthlyStatRepository.count() == 0 && enrollmentRepository.count() > 0) {
+            int months = enrollmentStatService.rebuild();
+            System.out.println("✅ Monthly enrollment counts backfilled: " + months + " months");
+        }
+        if (courseEnrollmentStatRepository.count() == 0 && enrollmentRepository.count() > 0) {
+            int rows = enrollmentStatService.rebuildCourseCounts();
+            System.out.println("✅ Course enrollment counts backfilled: " + rows + " rows");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package in.smit.crm.config;
+
+import in.smit.crm.service.NotificationInboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Notification Inbox Initializer
+ * Turns notifications sent before audiences existed into broadcasts already read by the current students
+ */
+@Component
+public class NotificationInboxInitializer implements CommandLineRunner {
+
+    @Autowired
+    private NotificationInboxService notificationInboxService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int migrated = notificationInboxService.backfillLegacyNotifications();
+        if (migrated > 0) {
+            System.out.println("✅ Legacy notifications marked as read broadcasts: " + migrated);
+        }
+    }
+}
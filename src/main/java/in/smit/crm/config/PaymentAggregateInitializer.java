@@ -0,0 +1,33 @@
+package in.smit.crm.config;
+
+import in.smit.crm.repository.PaymentAggregateRepository;
+import in.smit.crm.repository.PaymentRepository;
+import in.smit.crm.service.PaymentAggregateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Payment Counters Initializer
+ * Backfills payment_aggregate on the first start after the table was introduced
+ */
+@Component
+public class PaymentAggregateInitializer implements CommandLineRunner {
+
+    @Autowired
+    private PaymentAggregateRepository paymentAggregateRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentAggregateService paymentAggregateService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (paymentAggregateRepository.count() == 0 && paymentRepository.count() > 0) {
+            int buckets = paymentAggregateService.rebuild();
+            System.out.println("✅ Payment counters backfilled: " + buckets + " buckets");
+        }
+    }
+}
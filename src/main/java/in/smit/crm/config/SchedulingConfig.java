@@ -0,0 +1,13 @@
+package in.smit.crm.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * Enables @Scheduled background jobs (attendance alerts, etc.)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,33 @@
+package in.smit.crm.config;
+
+import in.smit.crm.repository.StudentBalanceRepository;
+import in.smit.crm.repository.StudentRepository;
+import in.smit.crm.service.StudentBalanceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Student Balances Initializer
+ * Backfills student_balance on the first start after the table was introduced
+ */
+@Component
+public class StudentBalanceInitializer implements CommandLineRunner {
+
+    @Autowired
+    private StudentBalanceRepository studentBalanceRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentBalanceService studentBalanceService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (studentBalanceRepository.count() == 0 && studentRepository.count() > 0) {
+            int students = studentBalanceService.refreshAll();
+            System.out.println("✅ Student balances backfilled: " + students + " students");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package in.smit.crm.config;
+
+import in.smit.crm.service.DuplicateStudentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Student Contact Key Initializer
+ * Fills the normalized email / phone keys of students saved before the columns existed
+ */
+@Component
+public class StudentContactKeyInitializer implements CommandLineRunner {
+
+    @Autowired
+    private DuplicateStudentService duplicateStudentService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int filled = duplicateStudentService.backfillContactKeys();
+        if (filled > 0) {
+            System.out.println("✅ Student contact keys filled: " + filled);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package in.smit.crm.config;
+
+import in.smit.crm.service.StudentSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Student Search Index Initializer
+ * Loads every student into the in-memory search index on startup
+ */
+@Component
+public class StudentSearchIndexInitializer implements CommandLineRunner {
+
+    @Autowired
+    private StudentSearchIndex studentSearchIndex;
+
+    @Override
+    public void run(String... args) throws Exception {
+        long start = System.currentTimeMillis();
+        int students = studentSearchIndex.rebuild();
+        System.out.println("✅ Student search index built: " + students + " students in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+}
@@ -1,14 +1,29 @@
 package in.smit.crm.controller;
 
+import in.smit.crm.dto.AttendanceRosterForm;
+import in.smit.crm.dto.AttendanceSummary;
+import in.smit.crm.dto.BulkResult;
+import in.smit.crm.dto.ImportReport;
+import in.smit.crm.dto.KeysetPage;
 import in.smit.crm.entity.Attendance;
+import in.smit.crm.entity.AttendanceStatus;
+import in.smit.crm.entity.Enrollment;
+import in.smit.crm.service.AttendanceImportService;
 import in.smit.crm.service.AttendanceService;
+import in.smit.crm.service.CourseService;
 import in.smit.crm.service.EnrollmentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+
 /**
  * Attendance Controller
  * Handles attendance marking and tracking
@@ -24,14 +39,33 @@ public class AttendanceController {
     @Autowired
     private EnrollmentService enrollmentService;
 
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private AttendanceImportService attendanceImportService;
+
     /**
-     * Show all attendance records
-     * URL: GET /admin/attendance
+     * Show attendance records, one keyset page at a time
+     * URL: GET /admin/attendance?sort=newest&status=ABSENT&date=2024-01-01&cursor=...
      * Thymeleaf: templates/admin/attendance.html (list.html)
      */
     @GetMapping
-    public String listAttendance(Model model) {
-        model.addAttribute("attendanceList", attendanceService.getAllAttendance());
+    public String listAttendance(@RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "newest") String sort,
+            @RequestParam(value = "status", required = false) AttendanceStatus status,
+            @RequestParam(value = "date", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "size", required = false) Integer size,
+            Model model) {
+        KeysetPage<Attendance> page = attendanceService.getAttendancePage(
+                cursor, "oldest".equals(sort), status, date, KeysetPage.size(size));
+        model.addAttribute("attendanceList", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("sort", sort);
+        model.addAttribute("filterStatus", status);
+        model.addAttribute("filterDate", date);
+        model.addAttribute("statuses", AttendanceStatus.values());
         return "admin/attendance";
     }
 
@@ -43,8 +77,6 @@ public class AttendanceController {
     @GetMapping("/mark")
     public String showMarkForm(Model model) {
         model.addAttribute("attendance", new Attendance());
-        // Get all active enrollments for dropdown
-        model.addAttribute("enrollments", enrollmentService.getAllEnrollments());
         return "admin/attendance-mark";
     }
 
@@ -65,6 +97,83 @@ public class AttendanceController {
         return "redirect:/admin/attendance";
     }
 
+    /**
+     * Show roster attendance form (whole course for one date)
+     * URL: GET /admin/attendance/roster?courseId=1&date=2024-01-01
+     * Thymeleaf: templates/admin/attendance-roster.html
+     */
+    @GetMapping("/roster")
+    public String showRosterForm(@RequestParam(value = "courseId", required = false) Long courseId,
+            @RequestParam(value = "date", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            Model model) {
+        AttendanceRosterForm form = new AttendanceRosterForm();
+        form.setCourseId(courseId);
+        form.setDate(date != null ? date : LocalDate.now());
+
+        if (courseId != null) {
+            List<Enrollment> roster = enrollmentService.getActiveRosterByCourseId(courseId);
+            // Default every student to PRESENT
+            roster.forEach(enrollment -> form.getStatuses().put(enrollment.getId(), AttendanceStatus.PRESENT));
+            model.addAttribute("roster", roster);
+            model.addAttribute("markedEnrollmentIds", new HashSet<>(
+                    attendanceService.getMarkedEnrollmentIds(form.getStatuses().keySet(), form.getDate())));
+        }
+
+        model.addAttribute("rosterForm", form);
+        model.addAttribute("courses", courseService.getAllCourses());
+        model.addAttribute("statuses", AttendanceStatus.values());
+        return "admin/attendance-roster";
+    }
+
+    /**
+     * Save roster attendance in one batch
+     * URL: POST /admin/attendance/roster/save
+     * Redirects to: /admin/attendance
+     */
+    @PostMapping("/roster/save")
+    public String saveRosterAttendance(@ModelAttribute("rosterForm") AttendanceRosterForm form,
+            RedirectAttributes redirectAttributes) {
+        try {
+            BulkResult result = attendanceService.markRosterAttendance(
+                    form.getCourseId(), form.getDate(), form.getStatuses());
+            redirectAttributes.addFlashAttribute("success", "Attendance marked for " + result.getCreated()
+                    + " students (" + result.getSkipped() + " skipped as already marked)");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
+        }
+        return "redirect:/admin/attendance";
+    }
+
+    /**
+     * Show attendance import form (and the report of the last import)
+     * URL: GET /admin/attendance/import
+     * Thymeleaf: templates/admin/attendance-import.html
+     */
+    @GetMapping("/import")
+    public String showImportForm() {
+        return "admin/attendance-import";
+    }
+
+    /**
+     * Import attendance from a CSV file
+     * URL: POST /admin/attendance/import
+     * Redirects to: /admin/attendance/import
+     */
+    @PostMapping("/import")
+    public String importAttendance(@RequestParam("file") MultipartFile file,
+            RedirectAttributes redirectAttributes) {
+        try {
+            ImportReport report = attendanceImportService.importCsv(file.getInputStream());
+            redirectAttributes.addFlashAttribute("report", report);
+            redirectAttributes.addFlashAttribute("success", "Imported " + report.getInserted() + " of "
+                    + report.getRowsRead() + " rows in " + report.getElapsedMillis() + " ms");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
+        }
+        return "redirect:/admin/attendance/import";
+    }
+
     /**
      * Show edit attendance form
      * URL: GET /admin/attendance/edit/{id}
@@ -75,7 +184,6 @@ public class AttendanceController {
         try {
             Attendance attendance = attendanceService.getAttendanceById(id);
             model.addAttribute("attendance", attendance);
-            model.addAttribute("enrollments", enrollmentService.getAllEnrollments());
             return "admin/attendance-edit";
         } catch (Exception e) {
             model.addAttribute("error", "Attendance record not found!");
@@ -128,12 +236,11 @@ public class AttendanceController {
             model.addAttribute("enrollment", enrollmentService.getEnrollmentById(enrollmentId));
             model.addAttribute("attendanceList",
                     attendanceService.getAttendanceByEnrollmentId(enrollmentId));
-            model.addAttribute("attendancePercentage",
-                    attendanceService.calculateAttendancePercentage(enrollmentId));
-            model.addAttribute("presentDays",
-                    attendanceService.countPresentDays(enrollmentId));
-            model.addAttribute("absentDays",
-                    attendanceService.countAbsentDays(enrollmentId));
+            AttendanceSummary summary = attendanceService.getAttendanceSummary(enrollmentId);
+            model.addAttribute("summary", summary);
+            model.addAttribute("attendancePercentage", summary.getPercentage());
+            model.addAttribute("presentDays", summary.getPresentDays());
+            model.addAttribute("absentDays", summary.getAbsentDays());
             return "admin/attendance-report";
         } catch (Exception e) {
             model.addAttribute("error", "Error loading report: " + e.getMessage());
@@ -0,0 +1,32 @@
+package in.smit.crm.controller;
+
+import in.smit.crm.dto.CacheStats;
+import in.smit.crm.service.CacheStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Cache Stats Controller
+ * JSON hit/miss counters of the in-process caches, to verify they are being used
+ * Admin only
+ */
+@RestController
+@RequestMapping("/admin/cache")
+public class CacheStatsController {
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    /**
+     * Hits, misses, hit rate, evictions and size of every cache
+     * URL: GET /admin/cache/stats
+     */
+    @GetMapping("/stats")
+    public List<CacheStats> stats() {
+        return cacheStatsService.getStats();
+    }
+}
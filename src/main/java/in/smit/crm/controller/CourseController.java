@@ -1,7 +1,10 @@
 package in.smit.crm.controller;
 
+import in.smit.crm.dto.JobProgress;
 import in.smit.crm.entity.Course;
+import in.smit.crm.service.CourseDeletionService;
 import in.smit.crm.service.CourseService;
+import in.smit.crm.service.EnrollmentStatService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -20,6 +23,12 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private EnrollmentStatService enrollmentStatService;
+
+    @Autowired
+    private CourseDeletionService courseDeletionService;
+
     /**
      * Show all courses (already in AdminController, but can also be here)
      * URL: GET /admin/courses
@@ -28,6 +37,8 @@ public class CourseController {
     @GetMapping
     public String listCourses(Model model) {
         model.addAttribute("courses", courseService.getAllCourses());
+        model.addAttribute("seatsTaken", courseService.getSeatsTaken());
+        model.addAttribute("courseCounts", enrollmentStatService.getCourseCounts());
         return "admin/courses";
     }
 
@@ -94,16 +105,17 @@ public class CourseController {
     }
 
     /**
-     * Delete course
+     * Delete course in the background (enrollments and attendance go with it)
      * URL: GET /admin/courses/delete/{id}
-     * Redirects to: /admin/courses
+     * Redirects to: /admin/courses (progress at /admin/jobs/{jobId})
      */
     @GetMapping("/delete/{id}")
     public String deleteCourse(@PathVariable("id") Long id,
             RedirectAttributes redirectAttributes) {
         try {
-            courseService.deleteCourse(id);
-            redirectAttributes.addFlashAttribute("success", "Course deleted successfully!");
+            JobProgress job = courseDeletionService.startDeletion(id);
+            redirectAttributes.addFlashAttribute("success", "Course deletion started, it may take a moment to disappear.");
+            redirectAttributes.addFlashAttribute("jobId", job.getId());
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error deleting course: " + e.getMessage());
         }
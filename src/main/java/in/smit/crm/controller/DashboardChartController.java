@@ -0,0 +1,57 @@
+package in.smit.crm.controller;
+
+import in.smit.crm.dto.ChartData;
+import in.smit.crm.service.DashboardChartService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Dashboard Chart Controller
+ * JSON data for the admin dashboard charts, fetched by static/js/chart.js after the page renders
+ * Admin only
+ */
+@RestController
+@RequestMapping("/admin/charts")
+public class DashboardChartController {
+
+    private static final int MAX_MONTHS = 36;
+
+    private static final int MAX_DAYS = 365;
+
+    @Autowired
+    private DashboardChartService dashboardChartService;
+
+    /**
+     * New enrollments per month
+     * URL: GET /admin/charts/enrollments?months=12
+     */
+    @GetMapping("/enrollments")
+    public ChartData enrollmentsPerMonth(@RequestParam(value = "months", defaultValue = "12") int months) {
+        return dashboardChartService.getEnrollmentsPerMonth(clamp(months, MAX_MONTHS));
+    }
+
+    /**
+     * Completed revenue per month by payment method
+     * URL: GET /admin/charts/revenue?months=12
+     */
+    @GetMapping("/revenue")
+    public ChartData revenuePerMonth(@RequestParam(value = "months", defaultValue = "12") int months) {
+        return dashboardChartService.getRevenuePerMonth(clamp(months, MAX_MONTHS));
+    }
+
+    /**
+     * Attendance rate per course
+     * URL: GET /admin/charts/attendance?days=30
+     */
+    @GetMapping("/attendance")
+    public ChartData attendanceRateByCourse(@RequestParam(value = "days", defaultValue = "30") int days) {
+        return dashboardChartService.getAttendanceRateByCourse(clamp(days, MAX_DAYS));
+    }
+
+    private int clamp(int value, int max) {
+        return Math.max(1, Math.min(value, max));
+    }
+}
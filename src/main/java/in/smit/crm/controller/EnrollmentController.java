@@ -1,9 +1,14 @@
 package in.smit.crm.controller;
 
+import in.smit.crm.dto.BulkEnrollmentForm;
+import in.smit.crm.dto.BulkResult;
+import in.smit.crm.dto.EnrollmentListItem;
+import in.smit.crm.dto.KeysetPage;
 import in.smit.crm.entity.Enrollment;
+import in.smit.crm.entity.EnrollmentStatus;
 import in.smit.crm.service.EnrollmentService;
-import in.smit.crm.service.StudentService;
 import in.smit.crm.service.CourseService;
+import in.smit.crm.service.WaitlistService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -23,19 +28,32 @@ public class EnrollmentController {
     private EnrollmentService enrollmentService;
 
     @Autowired
-    private StudentService studentService;
+    private CourseService courseService;
 
     @Autowired
-    private CourseService courseService;
+    private WaitlistService waitlistService;
 
     /**
-     * Show all enrollments
-     * URL: GET /admin/enrollments
+     * Show enrollments, one keyset page at a time
+     * URL: GET /admin/enrollments?sort=newest&status=ACTIVE&courseId=1&cursor=...
      * Thymeleaf: templates/admin/enrollments.html (list.html)
      */
     @GetMapping
-    public String listEnrollments(Model model) {
-        model.addAttribute("enrollments", enrollmentService.getAllEnrollments());
+    public String listEnrollments(@RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "newest") String sort,
+            @RequestParam(value = "status", required = false) EnrollmentStatus status,
+            @RequestParam(value = "courseId", required = false) Long courseId,
+            @RequestParam(value = "size", required = false) Integer size,
+            Model model) {
+        KeysetPage<EnrollmentListItem> page = enrollmentService.getEnrollmentPage(
+                cursor, "oldest".equals(sort), status, courseId, KeysetPage.size(size));
+        model.addAttribute("enrollments", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("sort", sort);
+        model.addAttribute("filterStatus", status);
+        model.addAttribute("filterCourseId", courseId);
+        model.addAttribute("statuses", EnrollmentStatus.values());
+        model.addAttribute("courses", courseService.getAllCourses());
         return "admin/enrollments";
     }
 
@@ -47,9 +65,6 @@ public class EnrollmentController {
     @GetMapping("/add")
     public String showAddForm(Model model) {
         model.addAttribute("enrollment", new Enrollment());
-        // Populate dropdowns
-        model.addAttribute("students", studentService.getAllStudents());
-        model.addAttribute("courses", courseService.getAllCourses());
         return "admin/enrollment-add";
     }
 
@@ -70,6 +85,44 @@ public class EnrollmentController {
         return "redirect:/admin/enrollments";
     }
 
+    /**
+     * Show cohort enrollment form
+     * URL: GET /admin/enrollments/bulk
+     * Thymeleaf: templates/admin/enrollment-bulk.html
+     */
+    @GetMapping("/bulk")
+    public String showBulkForm(Model model) {
+        model.addAttribute("bulkForm", new BulkEnrollmentForm());
+        return "admin/enrollment-bulk";
+    }
+
+    /**
+     * Enroll a cohort into a course in one transaction
+     * Joining date range wins over picked students when both are sent
+     * URL: POST /admin/enrollments/bulk
+     * Redirects to: /admin/enrollments
+     */
+    @PostMapping("/bulk")
+    public String bulkEnroll(@ModelAttribute("bulkForm") BulkEnrollmentForm form,
+            RedirectAttributes redirectAttributes) {
+        try {
+            BulkResult result;
+            if (form.getJoinedFrom() != null && form.getJoinedTo() != null) {
+                result = enrollmentService.bulkEnrollJoinedBetween(
+                        form.getCourseId(), form.getJoinedFrom(), form.getJoinedTo());
+            } else if (!form.getStudentIds().isEmpty()) {
+                result = enrollmentService.bulkEnroll(form.getCourseId(), form.getStudentIds());
+            } else {
+                throw new RuntimeException("Pick students or a joining date range!");
+            }
+            redirectAttributes.addFlashAttribute("success", "Enrolled " + result.getCreated()
+                    + " students (" + result.getSkipped() + " skipped as already enrolled or unknown)");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
+        }
+        return "redirect:/admin/enrollments";
+    }
+
     /**
      * Show edit enrollment form
      * URL: GET /admin/enrollments/edit/{id}
@@ -80,8 +133,6 @@ public class EnrollmentController {
         try {
             Enrollment enrollment = enrollmentService.getEnrollmentById(id);
             model.addAttribute("enrollment", enrollment);
-            model.addAttribute("students", studentService.getAllStudents());
-            model.addAttribute("courses", courseService.getAllCourses());
             return "admin/enrollment-edit";
         } catch (Exception e) {
             model.addAttribute("error", "Enrollment not found!");
@@ -139,4 +190,51 @@ public class EnrollmentController {
             return "redirect:/admin/enrollments";
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Show students waiting for a seat
+     * URL: GET /admin/enrollments/waitlist?courseId=1
+     * Thymeleaf: templates/admin/waitlist.html
+     */
+    @GetMapping("/waitlist")
+    public String showWaitlist(@RequestParam(value = "courseId", required = false) Long courseId, Model model) {
+        model.addAttribute("entries", waitlistService.getQueue(courseId));
+        model.addAttribute("filterCourseId", courseId);
+        model.addAttribute("courses", courseService.getAllCourses());
+        return "admin/waitlist";
+    }
+
+    /**
+     * Put a student on the waitlist of a course (second button of the add form)
+     * URL: POST /admin/enrollments/waitlist/join
+     * Redirects to: /admin/enrollments/waitlist
+     */
+    @PostMapping("/waitlist/join")
+    public String joinWaitlist(@ModelAttribute("enrollment") Enrollment enrollment,
+            RedirectAttributes redirectAttributes) {
+        try {
+            waitlistService.joinWaitlist(enrollment.getStudent().getId(), enrollment.getCourse().getId());
+            redirectAttributes.addFlashAttribute("success", "Student added to the waitlist!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
+        }
+        return "redirect:/admin/enrollments/waitlist";
+    }
+
+    /**
+     * Take a student off the waitlist
+     * URL: GET /admin/enrollments/waitlist/cancel/{id}
+     * Redirects to: /admin/enrollments/waitlist
+     */
+    @GetMapping("/waitlist/cancel/{id}")
+    public String cancelWaitlistEntry(@PathVariable("id") Long id,
+            RedirectAttributes redirectAttributes) {
+        try {
+            waitlistService.cancelEntry(id);
+            redirectAttributes.addFlashAttribute("success", "Waitlist entry cancelled!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
+        }
+        return "redirect:/admin/enrollments/waitlist";
+    }
+}
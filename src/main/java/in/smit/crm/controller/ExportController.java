@@ -0,0 +1,81 @@
+package in.smit.crm.controller;
+
+import in.smit.crm.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Export Controller
+ * Streams attendance, payments and enrollments as CSV downloads
+ * Admin only - date range defaults to the last year
+ */
+@Controller
+@RequestMapping("/admin/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * Export attendance
+     * URL: GET /admin/export/attendance?from=2024-01-01&to=2024-12-31
+     */
+    @GetMapping("/attendance")
+    public void exportAttendance(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        prepare(response, "attendance");
+        exportService.exportAttendance(startOf(from), endOf(to), response.getWriter());
+    }
+
+    /**
+     * Export payments
+     * URL: GET /admin/export/payments?from=2024-01-01&to=2024-12-31
+     */
+    @GetMapping("/payments")
+    public void exportPayments(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        prepare(response, "payments");
+        exportService.exportPayments(startOf(from), endOf(to), response.getWriter());
+    }
+
+    /**
+     * Export enrollments
+     * URL: GET /admin/export/enrollments?from=2024-01-01&to=2024-12-31
+     */
+    @GetMapping("/enrollments")
+    public void exportEnrollments(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        prepare(response, "enrollments");
+        exportService.exportEnrollments(startOf(from), endOf(to), response.getWriter());
+    }
+
+    private void prepare(HttpServletResponse response, String name) {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"" + name + "-" + LocalDate.now() + ".csv\"");
+    }
+
+    private LocalDate startOf(LocalDate from) {
+        return from != null ? from : LocalDate.now().minusYears(1);
+    }
+
+    private LocalDate endOf(LocalDate to) {
+        return to != null ? to : LocalDate.now();
+    }
+}
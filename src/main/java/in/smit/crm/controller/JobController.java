@@ -0,0 +1,44 @@
+package in.smit.crm.controller;
+
+import in.smit.crm.dto.JobProgress;
+import in.smit.crm.service.JobRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Job Controller
+ * JSON status of background jobs started from admin pages (poll with the job ID)
+ * Admin only
+ */
+@RestController
+@RequestMapping("/admin/jobs")
+public class JobController {
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    /**
+     * Recent jobs, newest first
+     * URL: GET /admin/jobs
+     */
+    @GetMapping
+    public List<JobProgress> recentJobs() {
+        return jobRegistry.getRecent();
+    }
+
+    /**
+     * One job (404 when unknown or expired)
+     * URL: GET /admin/jobs/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<JobProgress> job(@PathVariable("id") String id) {
+        JobProgress job = jobRegistry.get(id);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,61 @@
+package in.smit.crm.controller;
+
+import in.smit.crm.dto.LookupOption;
+import in.smit.crm.service.LookupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Lookup Controller
+ * JSON typeahead suggestions for the pickers in admin forms, fetched by static/js/typeahead.js
+ * Admin only
+ */
+@RestController
+@RequestMapping("/admin/lookup")
+public class LookupController {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private LookupService lookupService;
+
+    /**
+     * Students by name, email or phone
+     * URL: GET /admin/lookup/students?q=joh&limit=10
+     */
+    @GetMapping("/students")
+    public List<LookupOption> students(@RequestParam(value = "q", defaultValue = "") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return lookupService.findStudents(query, clamp(limit));
+    }
+
+    /**
+     * Courses by name
+     * URL: GET /admin/lookup/courses?q=jav&limit=10
+     */
+    @GetMapping("/courses")
+    public List<LookupOption> courses(@RequestParam(value = "q", defaultValue = "") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return lookupService.findCourses(query, clamp(limit));
+    }
+
+    /**
+     * ACTIVE enrollments by student, optionally in one course
+     * URL: GET /admin/lookup/enrollments?q=joh&courseId=1&limit=10
+     */
+    @GetMapping("/enrollments")
+    public List<LookupOption> enrollments(@RequestParam(value = "q", defaultValue = "") String query,
+            @RequestParam(value = "courseId", required = false) Long courseId,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return lookupService.findEnrollments(query, courseId, clamp(limit));
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -1,6 +1,7 @@
 package in.smit.crm.controller;
 
 import in.smit.crm.entity.Notification;
+import in.smit.crm.entity.NotificationAudience;
 import in.smit.crm.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -27,7 +28,10 @@ public class NotificationController {
      */
     @GetMapping
     public String listNotifications(Model model) {
-        model.addAttribute("notifications", notificationService.getAllNotificationsOrderByDate());
+        var notifications = notificationService.getAllNotificationsOrderByDate();
+        model.addAttribute("notifications", notifications);
+        // Read / recipient counts per notification ID
+        model.addAttribute("deliveryStats", notificationService.getDeliveryStats(notifications));
         return "admin/notifications";
     }
 
@@ -43,16 +47,20 @@ public class NotificationController {
     }
 
     /**
-     * Save new notification
+     * Send new notification to all students, one course or one student
      * URL: POST /admin/notifications/save
      * Redirects to: /admin/notifications
      */
     @PostMapping("/save")
     public String saveNotification(@ModelAttribute("notification") Notification notification,
+            @RequestParam(value = "courseId", required = false) Long courseId,
+            @RequestParam(value = "studentId", required = false) Long studentId,
             RedirectAttributes redirectAttributes) {
         try {
-            notificationService.saveNotification(notification);
-            redirectAttributes.addFlashAttribute("success", "Notification created successfully!");
+            Long targetId = notification.getAudience() == NotificationAudience.COURSE ? courseId : studentId;
+            Notification sent = notificationService.sendNotification(notification, targetId);
+            redirectAttributes.addFlashAttribute("success",
+                    "Notification sent to " + sent.getAudienceLabel() + "!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
         }
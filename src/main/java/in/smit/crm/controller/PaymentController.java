@@ -1,7 +1,14 @@
 package in.smit.crm.controller;
 
+import in.smit.crm.dto.DefaulterSummary;
+import in.smit.crm.dto.KeysetPage;
+import in.smit.crm.dto.PaymentListItem;
 import in.smit.crm.entity.Payment;
+import in.smit.crm.entity.PaymentMethod;
+import in.smit.crm.entity.PaymentStatus;
+import in.smit.crm.entity.StudentBalance;
 import in.smit.crm.service.PaymentService;
+import in.smit.crm.service.StudentBalanceService;
 import in.smit.crm.service.StudentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -24,19 +31,56 @@ public class PaymentController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentBalanceService studentBalanceService;
+
     /**
-     * Show all payments
-     * URL: GET /admin/payments
+     * Show payments, one keyset page at a time
+     * URL: GET /admin/payments?sort=newest&status=PENDING&method=UPI&cursor=...
      * Thymeleaf: templates/admin/payments.html (list.html)
      */
     @GetMapping
-    public String listPayments(Model model) {
-        model.addAttribute("payments", paymentService.getAllPayments());
+    public String listPayments(@RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "newest") String sort,
+            @RequestParam(value = "status", required = false) PaymentStatus status,
+            @RequestParam(value = "method", required = false) PaymentMethod method,
+            @RequestParam(value = "size", required = false) Integer size,
+            Model model) {
+        KeysetPage<PaymentListItem> page = paymentService.getPaymentPage(
+                cursor, "oldest".equals(sort), status, method, KeysetPage.size(size));
+        model.addAttribute("payments", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("sort", sort);
+        model.addAttribute("filterStatus", status);
+        model.addAttribute("filterMethod", method);
+        model.addAttribute("statuses", PaymentStatus.values());
+        model.addAttribute("methods", PaymentMethod.values());
         model.addAttribute("totalRevenue", paymentService.calculateTotalRevenue());
         model.addAttribute("pendingAmount", paymentService.calculatePendingAmount());
         return "admin/payments";
     }
 
+    /**
+     * Show students who owe money, one keyset page at a time
+     * URL: GET /admin/payments/defaulters?sort=highest&cursor=...
+     * Thymeleaf: templates/admin/defaulters.html
+     */
+    @GetMapping("/defaulters")
+    public String listDefaulters(@RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "highest") String sort,
+            @RequestParam(value = "size", required = false) Integer size,
+            Model model) {
+        KeysetPage<StudentBalance> page = studentBalanceService.getDefaulterPage(
+                cursor, "lowest".equals(sort), KeysetPage.size(size));
+        model.addAttribute("balances", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("sort", sort);
+        DefaulterSummary summary = studentBalanceService.getDefaulterSummary();
+        model.addAttribute("defaulterCount", summary.getDefaulterCount());
+        model.addAttribute("totalOutstanding", summary.getTotalOutstanding());
+        return "admin/defaulters";
+    }
+
     /**
      * Show add payment form
      * URL: GET /admin/payments/add
@@ -45,8 +89,6 @@ public class PaymentController {
     @GetMapping("/add")
     public String showAddForm(Model model) {
         model.addAttribute("payment", new Payment());
-        // Populate student dropdown
-        model.addAttribute("students", studentService.getAllStudents());
         return "admin/payment-add";
     }
 
@@ -77,7 +119,6 @@ public class PaymentController {
         try {
             Payment payment = paymentService.getPaymentById(id);
             model.addAttribute("payment", payment);
-            model.addAttribute("students", studentService.getAllStudents());
             return "admin/payment-edit";
         } catch (Exception e) {
             model.addAttribute("error", "Payment not found!");
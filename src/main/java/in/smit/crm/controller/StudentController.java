@@ -1,6 +1,7 @@
 package in.smit.crm.controller;
 
-import in.smit.crm.entity.Student;
+import in.smit.crm.dto.CurrentStudent;
+import in.smit.crm.entity.Enrollment;
 import in.smit.crm.security.CustomUserDetails;
 import in.smit.crm.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,13 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDateTime;
 
 /**
  * Student Controller
@@ -25,14 +32,27 @@ public class StudentController {
     @Autowired
     private EnrollmentService enrollmentService;
 
-    // @Autowired
-    // private AttendanceService attendanceService;
+    @Autowired
+    private AttendanceService attendanceService;
 
     @Autowired
     private PaymentService paymentService;
 
     @Autowired
-    private NotificationService notificationService;
+    private NotificationInboxService notificationInboxService;
+
+    /**
+     * Unread notification badge shown in the sidebar of every student page
+     * One primary key lookup on the student's inbox counter
+     */
+    @ModelAttribute("unreadCount")
+    public int unreadCount(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        if (userDetails == null) {
+            return 0;
+        }
+        CurrentStudent currentStudent = studentService.getCurrentStudent(userDetails.getUser().getId());
+        return currentStudent == null ? 0 : notificationInboxService.getUnreadCount(currentStudent.getId());
+    }
 
     /**
      * Student Dashboard
@@ -41,8 +61,8 @@ public class StudentController {
      */
     @GetMapping("/dashboard")
     public String studentDashboard(@AuthenticationPrincipal CustomUserDetails userDetails, Model model) {
-        // Get current logged-in student
-        Student currentStudent = studentService.getStudentByUserId(userDetails.getUser().getId());
+        // Get current logged-in student (cached, see StudentService.getCurrentStudent)
+        CurrentStudent currentStudent = studentService.getCurrentStudent(userDetails.getUser().getId());
 
         if (currentStudent == null) {
             model.addAttribute("error", "Student profile not found. Please contact admin.");
@@ -55,8 +75,9 @@ public class StudentController {
         model.addAttribute("enrollments",
                 enrollmentService.getEnrollmentsByStudentId(currentStudent.getId()));
 
-        // Get recent notifications
-        model.addAttribute("notifications", notificationService.getRecentNotifications());
+        // Get recent notifications (last 7 days) sent to this student
+        model.addAttribute("notifications",
+                notificationInboxService.getInbox(currentStudent.getId(), LocalDateTime.now().minusDays(7)));
 
         return "student/dashboard";
     }
@@ -68,7 +89,7 @@ public class StudentController {
      */
     @GetMapping("/my-courses")
     public String myCourses(@AuthenticationPrincipal CustomUserDetails userDetails, Model model) {
-        Student currentStudent = studentService.getStudentByUserId(userDetails.getUser().getId());
+        CurrentStudent currentStudent = studentService.getCurrentStudent(userDetails.getUser().getId());
 
         if (currentStudent != null) {
             model.addAttribute("enrollments",
@@ -85,15 +106,16 @@ public class StudentController {
      */
     @GetMapping("/my-attendance")
     public String myAttendance(@AuthenticationPrincipal CustomUserDetails userDetails, Model model) {
-        Student currentStudent = studentService.getStudentByUserId(userDetails.getUser().getId());
+        CurrentStudent currentStudent = studentService.getCurrentStudent(userDetails.getUser().getId());
 
         if (currentStudent != null) {
             // Get all enrollments for this student
             var enrollments = enrollmentService.getEnrollmentsByStudentId(currentStudent.getId());
             model.addAttribute("enrollments", enrollments);
 
-            // For each enrollment, you can calculate attendance percentage in Thymeleaf
-            // Or pass it here if needed
+            // Attendance stats for all enrollments in one grouped query
+            model.addAttribute("attendanceSummaries", attendanceService.getAttendanceSummaries(
+                    enrollments.stream().map(Enrollment::getId).toList()));
         }
 
         return "student/my-attendance";
@@ -106,7 +128,7 @@ public class StudentController {
      */
     @GetMapping("/my-payments")
     public String myPayments(@AuthenticationPrincipal CustomUserDetails userDetails, Model model) {
-        Student currentStudent = studentService.getStudentByUserId(userDetails.getUser().getId());
+        CurrentStudent currentStudent = studentService.getCurrentStudent(userDetails.getUser().getId());
 
         if (currentStudent != null) {
             model.addAttribute("payments",
@@ -121,15 +143,59 @@ public class StudentController {
     }
 
     /**
-     * Notifications - View all notifications
+     * Notifications - View notifications sent to the student, newest first
      * URL: http://localhost:8080/student/notifications
      * Thymeleaf: templates/student/notifications.html
      */
     @GetMapping("/notifications")
-    public String notifications(Model model) {
-        model.addAttribute("notifications",
-                notificationService.getAllNotificationsOrderByDate());
+    public String notifications(@AuthenticationPrincipal CustomUserDetails userDetails, Model model) {
+        CurrentStudent currentStudent = studentService.getCurrentStudent(userDetails.getUser().getId());
+
+        if (currentStudent != null) {
+            model.addAttribute("notifications", notificationInboxService.getInbox(currentStudent.getId(), null));
+        }
 
         return "student/notifications";
     }
-}
\ No newline at end of file
+
+    /**
+     * Mark one notification as read
+     * URL: POST /student/notifications/{id}/read
+     * Redirects to: /student/notifications
+     */
+    @PostMapping("/notifications/{id}/read")
+    public String markNotificationRead(@AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable("id") Long id, RedirectAttributes redirectAttributes) {
+        try {
+            CurrentStudent currentStudent = studentService.getCurrentStudent(userDetails.getUser().getId());
+            if (currentStudent == null) {
+                throw new RuntimeException("Student profile not found!");
+            }
+            notificationInboxService.markRead(currentStudent.getId(), id);
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
+        }
+        return "redirect:/student/notifications";
+    }
+
+    /**
+     * Mark all notifications as read
+     * URL: POST /student/notifications/read-all
+     * Redirects to: /student/notifications
+     */
+    @PostMapping("/notifications/read-all")
+    public String markAllNotificationsRead(@AuthenticationPrincipal CustomUserDetails userDetails,
+            RedirectAttributes redirectAttributes) {
+        try {
+            CurrentStudent currentStudent = studentService.getCurrentStudent(userDetails.getUser().getId());
+            if (currentStudent == null) {
+                throw new RuntimeException("Student profile not found!");
+            }
+            int marked = notificationInboxService.markAllRead(currentStudent.getId());
+            redirectAttributes.addFlashAttribute("success", marked + " notification(s) marked as read!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
+        }
+        return "redirect:/student/notifications";
+    }
+}
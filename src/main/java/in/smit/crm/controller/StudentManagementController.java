@@ -1,7 +1,12 @@
 package in.smit.crm.controller;
 
+import in.smit.crm.dto.JobProgress;
+import in.smit.crm.dto.KeysetPage;
 import in.smit.crm.entity.Student;
 import in.smit.crm.entity.User;
+import in.smit.crm.service.DuplicateStudentService;
+import in.smit.crm.service.StudentOnboardingService;
+import in.smit.crm.service.StudentProfileService;
 import in.smit.crm.service.StudentService;
 import in.smit.crm.service.UserService;
 import in.smit.crm.service.RoleService;
@@ -9,8 +14,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Student Management Controller (Admin side)
  * Admin manages student records
@@ -29,14 +38,30 @@ public class StudentManagementController {
     @Autowired
     private RoleService roleService;
 
+    @Autowired
+    private StudentProfileService studentProfileService;
+
+    @Autowired
+    private StudentOnboardingService studentOnboardingService;
+
+    @Autowired
+    private DuplicateStudentService duplicateStudentService;
+
     /**
-     * Show all students
-     * URL: GET /admin/students
+     * Show students by last name, one keyset page at a time
+     * URL: GET /admin/students?sort=az&cursor=...
      * Thymeleaf: templates/admin/students.html (list.html)
      */
     @GetMapping
-    public String listStudents(Model model) {
-        model.addAttribute("students", studentService.getAllStudents());
+    public String listStudents(@RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "az") String sort,
+            @RequestParam(value = "size", required = false) Integer size,
+            Model model) {
+        KeysetPage<Student> page = studentService.getStudentPage(
+                cursor, "za".equals(sort), KeysetPage.size(size));
+        model.addAttribute("students", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("sort", sort);
         return "admin/students";
     }
 
@@ -54,6 +79,50 @@ public class StudentManagementController {
         return "admin/student-add";
     }
 
+    /**
+     * Show bulk onboarding form and the recent onboarding jobs
+     * URL: GET /admin/students/onboard
+     * Thymeleaf: templates/admin/student-onboard.html
+     */
+    @GetMapping("/onboard")
+    public String showOnboardForm(Model model) {
+        model.addAttribute("roles", roleService.getAllRoles());
+        model.addAttribute("jobs", studentOnboardingService.getRecentJobs());
+        return "admin/student-onboard";
+    }
+
+    /**
+     * Onboard students (with user accounts) from a CSV or JSON file in the background
+     * URL: POST /admin/students/onboard
+     * Redirects to: /admin/students/onboard (progress at /admin/jobs/{jobId})
+     */
+    @PostMapping("/onboard")
+    public String onboardStudents(@RequestParam("file") MultipartFile file,
+            @RequestParam("roleId") Long roleId,
+            RedirectAttributes redirectAttributes) {
+        try {
+            JobProgress job = studentOnboardingService.startOnboarding(
+                    file.getOriginalFilename(), file.getInputStream(), roleId);
+            redirectAttributes.addFlashAttribute("success", "Onboarding started for " + job.getTotal()
+                    + " rows (" + job.getErrorCount() + " rejected by validation)");
+            redirectAttributes.addFlashAttribute("jobId", job.getId());
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
+        }
+        return "redirect:/admin/students/onboard";
+    }
+
+    /**
+     * Show students that share an email or phone (ignoring case and formatting)
+     * URL: GET /admin/students/duplicates
+     * Thymeleaf: templates/admin/student-duplicates.html
+     */
+    @GetMapping("/duplicates")
+    public String showDuplicates(Model model) {
+        model.addAttribute("report", duplicateStudentService.findDuplicates());
+        return "admin/student-duplicates";
+    }
+
     /**
      * Save new student (with user account)
      * URL: POST /admin/students/save
@@ -66,6 +135,9 @@ public class StudentManagementController {
             @RequestParam("roleId") Long roleId,
             RedirectAttributes redirectAttributes) {
         try {
+            // Before the user account, so a duplicate doesn't leave an orphan user behind
+            studentService.checkNotDuplicate(student);
+
             // First create user account
             User user = new User();
             user.setUsername(username);
@@ -78,6 +150,7 @@ public class StudentManagementController {
             studentService.saveStudent(student);
 
             redirectAttributes.addFlashAttribute("success", "Student added successfully!");
+            addPhoneWarning(student, redirectAttributes);
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
         }
@@ -112,6 +185,7 @@ public class StudentManagementController {
         try {
             studentService.saveStudent(student);
             redirectAttributes.addFlashAttribute("success", "Student updated successfully!");
+            addPhoneWarning(student, redirectAttributes);
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error: " + e.getMessage());
         }
@@ -136,15 +210,14 @@ public class StudentManagementController {
     }
 
     /**
-     * View student details
+     * View student profile (details, enrollments with attendance, payments)
      * URL: GET /admin/students/view/{id}
      * Thymeleaf: templates/admin/student-view.html
      */
     @GetMapping("/view/{id}")
     public String viewStudent(@PathVariable("id") Long id, Model model) {
         try {
-            Student student = studentService.getStudentById(id);
-            model.addAttribute("student", student);
+            model.addAttribute("profile", studentProfileService.getProfile(id));
             return "admin/student-view";
         } catch (Exception e) {
             model.addAttribute("error", "Student not found!");
@@ -163,4 +236,14 @@ public class StudentManagementController {
         model.addAttribute("keyword", keyword);
         return "admin/students";
     }
-}
\ No newline at end of file
+
+    // Flash a warning naming other students with the same phone, the save itself goes through
+    private void addPhoneWarning(Student student, RedirectAttributes redirectAttributes) {
+        List<Student> matches = studentService.findPhoneMatches(student);
+        if (!matches.isEmpty()) {
+            redirectAttributes.addFlashAttribute("warning", "Same phone as: " + matches.stream()
+                    .map(match -> match.getFirstName() + " " + match.getLastName())
+                    .collect(Collectors.joining(", ")) + " (see Duplicates)");
+        }
+    }
+}
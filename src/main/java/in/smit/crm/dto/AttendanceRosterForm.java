@@ -0,0 +1,29 @@
+package in.smit.crm.dto;
+
+import in.smit.crm.entity.AttendanceStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Form object for roster-mode attendance
+ * Holds one status per enrollment of a course for a single date
+ */
+@Data
+@NoArgsConstructor
+public class AttendanceRosterForm {
+
+    // FRONTEND INPUT REQUIRED - course whose roster is being marked
+    private Long courseId;
+
+    // FRONTEND INPUT REQUIRED - date of attendance
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate date;
+
+    // FRONTEND INPUT REQUIRED - bound from fields named statuses[enrollmentId]
+    private Map<Long, AttendanceStatus> statuses = new LinkedHashMap<>();
+}
@@ -0,0 +1,24 @@
+package in.smit.crm.dto;
+
+import in.smit.crm.entity.AttendanceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Attendance row for batch inserts (no JPA entity involved)
+ * courseId is carried along so the roll-up can be updated without extra lookups
+ */
+@Data
+@AllArgsConstructor
+public class AttendanceRow {
+
+    private Long enrollmentId;
+
+    private Long courseId;
+
+    private LocalDate date;
+
+    private AttendanceStatus status;
+}
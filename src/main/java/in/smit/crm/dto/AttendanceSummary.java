@@ -0,0 +1,35 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Attendance counts for one enrollment
+ * Built directly by the grouped query in AttendanceRepository
+ */
+@Data
+@AllArgsConstructor
+public class AttendanceSummary {
+
+    private Long enrollmentId;
+
+    private long presentDays;
+
+    private long absentDays;
+
+    private long lateDays;
+
+    private long excusedDays;
+
+    private long totalDays;
+
+    // Empty summary for enrollments without any attendance yet
+    public static AttendanceSummary empty(Long enrollmentId) {
+        return new AttendanceSummary(enrollmentId, 0, 0, 0, 0, 0);
+    }
+
+    // Percentage of PRESENT days out of all marked days
+    public double getPercentage() {
+        return totalDays == 0 ? 0.0 : presentDays * 100.0 / totalDays;
+    }
+}
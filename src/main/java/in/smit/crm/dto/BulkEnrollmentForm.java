@@ -0,0 +1,32 @@
+package in.smit.crm.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Form object for cohort enrollment
+ * Either a list of students or a joining date range selects who is enrolled into the course
+ */
+@Data
+@NoArgsConstructor
+public class BulkEnrollmentForm {
+
+    // FRONTEND INPUT REQUIRED - course the cohort is enrolled into
+    private Long courseId;
+
+    // FRONTEND INPUT OPTIONAL - students picked one by one
+    private List<Long> studentIds = new ArrayList<>();
+
+    // FRONTEND INPUT OPTIONAL - students who joined on or after this date (used with joinedTo)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate joinedFrom;
+
+    // FRONTEND INPUT OPTIONAL - students who joined on or before this date (used with joinedFrom)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate joinedTo;
+}
@@ -0,0 +1,17 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of a bulk write
+ * created = rows inserted, skipped = rows ignored (duplicates or invalid)
+ */
+@Data
+@AllArgsConstructor
+public class BulkResult {
+
+    private int created;
+
+    private int skipped;
+}
@@ -0,0 +1,25 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Hit/miss counters of one in-process cache (served as JSON)
+ * Counters start at zero on every application start
+ */
+@Data
+@AllArgsConstructor
+public class CacheStats {
+
+    private String name;
+
+    private long size;
+
+    private long hits;
+
+    private long misses;
+
+    private double hitRate;
+
+    private long evictions;
+}
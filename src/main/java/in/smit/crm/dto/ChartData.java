@@ -0,0 +1,31 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chart payload shaped like Chart.js "data": labels on the x axis plus one or more datasets
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChartData {
+
+    private List<String> labels = new ArrayList<>();
+
+    private List<Dataset> datasets = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Dataset {
+
+        private String label;
+
+        private List<Number> data = new ArrayList<>();
+    }
+}
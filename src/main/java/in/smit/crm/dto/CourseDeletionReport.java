@@ -0,0 +1,21 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of a course deletion
+ * Row counts removed by the set-based deletes, archived = rows were copied to the archive tables first
+ */
+@Data
+@AllArgsConstructor
+public class CourseDeletionReport {
+
+    private String courseName;
+
+    private int enrollments;
+
+    private int attendance;
+
+    private boolean archived;
+}
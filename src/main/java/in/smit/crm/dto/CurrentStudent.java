@@ -0,0 +1,29 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Student profile of the logged-in user, as shown on the student portal
+ * Cached per user ID (CacheConfig.STUDENT_PROFILES), so it holds plain fields and no entities
+ */
+@Data
+@AllArgsConstructor
+public class CurrentStudent {
+
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private String phone;
+
+    private LocalDate dob;
+
+    private LocalDate enrollmentDate;
+}
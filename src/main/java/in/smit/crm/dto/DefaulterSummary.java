@@ -0,0 +1,18 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of students who owe money and the total they owe, for the defaulters page header
+ */
+@Data
+@AllArgsConstructor
+public class DefaulterSummary {
+
+    private long defaulterCount;
+
+    private BigDecimal totalOutstanding;
+}
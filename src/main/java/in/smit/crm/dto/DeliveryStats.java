@@ -0,0 +1,18 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Recipient and read counts of one notification, for the admin list (no bitmaps loaded)
+ */
+@Data
+@AllArgsConstructor
+public class DeliveryStats {
+
+    private Long notificationId;
+
+    private int recipientCount;
+
+    private int readCount;
+}
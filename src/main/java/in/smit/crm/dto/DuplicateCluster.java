@@ -0,0 +1,21 @@
+package in.smit.crm.dto;
+
+import in.smit.crm.entity.Student;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Students that are probably the same person
+ * Each one shares a normalized email or phone with another member (directly or through a chain)
+ */
+@Data
+@AllArgsConstructor
+public class DuplicateCluster {
+
+    private List<Student> students;
+
+    // Email / phone keys held by more than one member
+    private List<String> sharedKeys;
+}
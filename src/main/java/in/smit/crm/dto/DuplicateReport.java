@@ -0,0 +1,26 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a duplicate-student scan
+ * Only the first clusters are loaded for display, clusterCount holds the total
+ */
+@Data
+@AllArgsConstructor
+public class DuplicateReport {
+
+    private long studentsScanned;
+
+    private int clusterCount;
+
+    // Students that belong to some cluster
+    private long duplicateStudents;
+
+    private List<DuplicateCluster> clusters;
+
+    private long elapsedMillis;
+}
@@ -0,0 +1,36 @@
+package in.smit.crm.dto;
+
+import in.smit.crm.entity.EnrollmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only row of the enrollments list
+ * Built by a JPQL constructor expression, so rendering never touches lazy associations
+ */
+@Data
+@AllArgsConstructor
+public class EnrollmentListItem {
+
+    private Long id;
+
+    private Long studentId;
+
+    private String studentFirstName;
+
+    private String studentLastName;
+
+    private Long courseId;
+
+    private String courseName;
+
+    private LocalDate enrollmentDate;
+
+    private EnrollmentStatus status;
+
+    public String getStudentName() {
+        return studentFirstName + " " + studentLastName;
+    }
+}
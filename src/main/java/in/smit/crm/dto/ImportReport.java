@@ -0,0 +1,43 @@
+package in.smit.crm.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a file import
+ * Only the first MAX_ERRORS row errors are kept, errorCount holds the total
+ */
+@Data
+@NoArgsConstructor
+public class ImportReport {
+
+    public static final int MAX_ERRORS = 100;
+
+    private long rowsRead;
+
+    private long inserted;
+
+    private long duplicates;
+
+    private long errorCount;
+
+    private List<String> errors = new ArrayList<>();
+
+    private long elapsedMillis;
+
+    // Record a rejected row (line numbers are 1-based and include the header)
+    public void addError(long lineNumber, String message) {
+        errorCount++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("Line " + lineNumber + ": " + message);
+        }
+    }
+
+    // Throughput of the whole import
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000 / elapsedMillis;
+    }
+}
@@ -0,0 +1,17 @@
+package in.smit.crm.dto;
+
+import in.smit.crm.entity.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Notification as seen by one student, with their read state
+ */
+@Data
+@AllArgsConstructor
+public class InboxItem {
+
+    private Notification notification;
+
+    private boolean read;
+}
@@ -0,0 +1,46 @@
+package in.smit.crm.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * State of a background job (served as JSON by /admin/jobs/{id})
+ * Written by the worker thread and read by request threads, hence the volatile fields
+ */
+@Data
+public class JobProgress {
+
+    public static final int MAX_ERRORS = 100;
+
+    public enum State {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+
+    private final String type;
+
+    private final String description;
+
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile State state = State.QUEUED;
+
+    // Units of work done so far out of total (0 / 0 when the job can't tell)
+    private volatile long processed;
+
+    private volatile long total;
+
+    // Failed rows of row-based jobs (first MAX_ERRORS only), errorCount holds the total
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    private volatile long errorCount;
+
+    // Result summary or error message once finished
+    private volatile String message;
+
+    private volatile LocalDateTime finishedAt;
+}
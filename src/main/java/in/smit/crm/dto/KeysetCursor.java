@@ -0,0 +1,49 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.function.Function;
+
+/**
+ * Position in a keyset paginated list: sort value of the last row seen plus its ID
+ * Encoded in URLs as "value|id"; a cursor that doesn't parse (hand-edited URL) reads as the first page
+ */
+@Data
+@AllArgsConstructor
+public class KeysetCursor<T> {
+
+    private static final char SEPARATOR = '|';
+
+    private T value;
+
+    private Long id;
+
+    // Encode the position after a row
+    public static String encode(Object value, Long id) {
+        return value + String.valueOf(SEPARATOR) + id;
+    }
+
+    // Decode a cursor whose sort value is text, null means first page
+    public static KeysetCursor<String> decode(String cursor) {
+        return decode(cursor, Function.identity());
+    }
+
+    // Decode a cursor from a request parameter, parsing its sort value with the list's key type
+    // Null, blank or unreadable means first page
+    public static <T> KeysetCursor<T> decode(String cursor, Function<String, T> parser) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separator = cursor.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            return new KeysetCursor<>(parser.apply(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (cursor) paginated list
+ * nextCursor points after the last item and is null on the last page
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_SIZE = 25;
+
+    public static final int MAX_SIZE = 100;
+
+    private List<T> items;
+
+    private String nextCursor;
+
+    // Build a page from a query that fetched size + 1 rows
+    // The extra row only tells whether another page exists
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+
+    // Clamp a requested page size to 1..MAX_SIZE
+    public static int size(Integer requested) {
+        if (requested == null || requested < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(requested, MAX_SIZE);
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
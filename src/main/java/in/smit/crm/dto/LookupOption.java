@@ -0,0 +1,17 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One typeahead suggestion (served as JSON)
+ * ID goes into the form's hidden field, label is shown to the user
+ */
+@Data
+@AllArgsConstructor
+public class LookupOption {
+
+    private Long id;
+
+    private String label;
+}
@@ -0,0 +1,34 @@
+package in.smit.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * One parsed row of a student onboarding file
+ * password holds the raw password until the worker replaces it with its BCrypt hash
+ */
+@Data
+@AllArgsConstructor
+public class OnboardingRow {
+
+    // Where the row came from, e.g. "Line 5" (CSV) or "Record 3" (JSON)
+    private String source;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private String phone;
+
+    private String address;
+
+    private LocalDate dob;
+
+    private String username;
+
+    private String password;
+}
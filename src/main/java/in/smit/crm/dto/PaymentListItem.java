@@ -0,0 +1,38 @@
+package in.smit.crm.dto;
+
+import in.smit.crm.entity.PaymentMethod;
+import in.smit.crm.entity.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only row of the payments list
+ * Built by a JPQL constructor expression, so rendering never touches lazy associations
+ */
+@Data
+@AllArgsConstructor
+public class PaymentListItem {
+
+    private Long id;
+
+    private Long studentId;
+
+    private String studentFirstName;
+
+    private String studentLastName;
+
+    private BigDecimal amount;
+
+    private LocalDate paymentDate;
+
+    private PaymentMethod paymentMethod;
+
+    private PaymentStatus status;
+
+    public String getStudentName() {
+        return studentFirstName + " " + studentLastName;
+    }
+}
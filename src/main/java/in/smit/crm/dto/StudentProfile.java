@@ -0,0 +1,38 @@
+package in.smit.crm.dto;
+
+import in.smit.crm.entity.Enrollment;
+import in.smit.crm.entity.Payment;
+import in.smit.crm.entity.Student;
+import in.smit.crm.entity.StudentBalance;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the student 360 page shows, loaded in one go
+ * Enrollments come with their course, attendance is keyed by enrollment ID, balance is null until first refreshed
+ */
+@Data
+@AllArgsConstructor
+public class StudentProfile {
+
+    private Student student;
+
+    private List<Enrollment> enrollments;
+
+    private Map<Long, AttendanceSummary> attendance;
+
+    private BigDecimal totalPaid;
+
+    private List<Payment> pendingPayments;
+
+    private BigDecimal pendingAmount;
+
+    private StudentBalance balance;
+
+    // Wall-clock time of the whole fan-out
+    private long loadMillis;
+}
@@ -8,9 +8,14 @@ import jakarta.persistence.*;
 
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance",
+        indexes = {
+                @Index(name = "idx_attendance_date_id", columnList = "date, id"),
+                @Index(name = "idx_attendance_updated_at", columnList = "updated_at") },
+        uniqueConstraints = @UniqueConstraint(name = "uk_attendance_enrollment_date", columnNames = { "enrollment_id", "date" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,4 +41,9 @@ public class Attendance {
     @JoinColumn(name = "enrollment_id", nullable = false)
     // FRONTEND INPUT REQUIRED - send enrollment_id
     private Enrollment enrollment;
+
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    // AUTO-FILLED by database on every insert and update (JDBC batches included), read by the alert scanner
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Low-attendance conditions an enrollment was last alerted for
+ * Lets the alert scanner notify only when a condition starts, not on every scan while it lasts
+ * Maintained by AttendanceAlertService (never edited from frontend)
+ */
+@Entity
+@Table(name = "attendance_alert_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceAlertState {
+
+    @Id
+    @Column(name = "enrollment_id")
+    // AUTO-FILLED - ID of the enrollment, no foreign key so enrollment deletes aren't blocked
+    private Long enrollmentId;
+
+    @Column(name = "below_threshold", nullable = false)
+    // AUTO-FILLED - attendance percentage was below the threshold at the last evaluation
+    private boolean belowThreshold;
+
+    @Column(name = "absence_streak", nullable = false)
+    // AUTO-FILLED - the latest N days were all ABSENT at the last evaluation
+    private boolean absenceStreak;
+
+    @Column(name = "updated_at", nullable = false)
+    // AUTO-FILLED in backend using @PrePersist/@PreUpdate
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
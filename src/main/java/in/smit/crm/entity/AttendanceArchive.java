@@ -0,0 +1,39 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Copy of an attendance record removed with its course (written by AttendanceArchiveRepository)
+ */
+@Entity
+@Table(name = "attendance_archive", indexes = @Index(name = "idx_attendance_archive_enrollment", columnList = "enrollment_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceArchive {
+
+    @Id
+    // AUTO-FILLED - ID the record had before deletion
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private AttendanceStatus status;
+
+    @Column(name = "enrollment_id", nullable = false)
+    private Long enrollmentId;
+
+    @Column(name = "archived_at", nullable = false)
+    // AUTO-FILLED - when the course was deleted
+    private LocalDateTime archivedAt;
+}
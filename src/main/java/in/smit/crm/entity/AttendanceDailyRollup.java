@@ -0,0 +1,44 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated attendance: one row per course, per day, per status
+ * Maintained incrementally by AttendanceRollupService (never edited from frontend)
+ */
+@Entity
+@Table(name = "attendance_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "course_id", "date", "status" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // AUTO-FILLED by database
+    private Long id;
+
+    @Column(name = "course_id", nullable = false)
+    // AUTO-FILLED - course of the enrollment the attendance belongs to
+    private Long courseId;
+
+    @Column(nullable = false)
+    // AUTO-FILLED - attendance date
+    private LocalDate date;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    // AUTO-FILLED - PRESENT, ABSENT, LATE, EXCUSED
+    private AttendanceStatus status;
+
+    @Column(name = "record_count", nullable = false)
+    // AUTO-FILLED - number of attendance rows in this bucket
+    private long recordCount;
+}
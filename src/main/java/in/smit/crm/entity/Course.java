@@ -36,6 +36,15 @@ public class Course {
     // FRONTEND INPUT REQUIRED
     private BigDecimal fees;
 
+    @Column
+    // FRONTEND INPUT OPTIONAL - maximum ACTIVE enrollments, null means unlimited
+    private Integer capacity;
+
+    @Column(name = "seats_taken", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    // AUTO-MANAGED - changed only by CourseRepository seat updates (don't send from frontend)
+    private int seatsTaken;
+
     @Column(name = "start_date", nullable = false)
     // FRONTEND INPUT REQUIRED
     private LocalDate startDate;
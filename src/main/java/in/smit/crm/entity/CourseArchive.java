@@ -0,0 +1,51 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Copy of a deleted course (written by CourseArchiveRepository, never edited from frontend)
+ */
+@Entity
+@Table(name = "course_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseArchive {
+
+    @Id
+    // AUTO-FILLED - ID the course had before deletion
+    private Long id;
+
+    @Column(name = "course_name", nullable = false)
+    private String courseName;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(nullable = false)
+    private Integer duration;
+
+    @Column(nullable = false)
+    private BigDecimal fees;
+
+    @Column
+    private Integer capacity;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "archived_at", nullable = false)
+    // AUTO-FILLED - when the course was deleted
+    private LocalDateTime archivedAt;
+}
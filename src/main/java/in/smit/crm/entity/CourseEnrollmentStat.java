@@ -0,0 +1,38 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+/**
+ * Pre-aggregated enrollments: one row per course, per enrollment status
+ * Maintained incrementally by EnrollmentStatService (never edited from frontend)
+ */
+@Entity
+@Table(name = "course_enrollment_stat",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "course_id", "status" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseEnrollmentStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // AUTO-FILLED by database
+    private Long id;
+
+    @Column(name = "course_id", nullable = false)
+    // AUTO-FILLED - course the enrollments belong to
+    private Long courseId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    // AUTO-FILLED - ACTIVE, COMPLETED, DROPPED, SUSPENDED
+    private EnrollmentStatus status;
+
+    @Column(name = "enrollment_count", nullable = false)
+    // AUTO-FILLED - number of enrollments of the course in this status
+    private long enrollmentCount;
+}
@@ -9,7 +9,10 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Entity
-@Table(name = "enrollment")
+@Table(name = "enrollment",
+        indexes = @Index(name = "idx_enrollment_date_id", columnList = "enrollment_date, id"),
+        // One ACTIVE enrollment per student and course (NULLs never collide, so other statuses are free)
+        uniqueConstraints = @UniqueConstraint(name = "uk_enrollment_active", columnNames = { "student_id", "course_id", "active_flag" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +33,10 @@ public class Enrollment {
     // Possible values: ACTIVE, COMPLETED, DROPPED, SUSPENDED
     private EnrollmentStatus status;
 
+    @Column(name = "active_flag")
+    // AUTO-FILLED from status using @PrePersist/@PreUpdate - TRUE while ACTIVE, NULL otherwise
+    private Boolean activeFlag;
+
     // Relationship: Many Enrollments belong to One Student
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
@@ -53,5 +60,11 @@ public class Enrollment {
         if (status == null) {
             status = EnrollmentStatus.ACTIVE;
         }
+        onSave();
+    }
+
+    @PreUpdate
+    protected void onSave() {
+        activeFlag = status == EnrollmentStatus.ACTIVE ? Boolean.TRUE : null;
     }
 }
\ No newline at end of file
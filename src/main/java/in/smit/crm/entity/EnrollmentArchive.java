@@ -0,0 +1,43 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Copy of an enrollment removed with its course (written by EnrollmentArchiveRepository)
+ * Plain ID columns, no foreign keys: the course is gone and the student may be deleted later
+ */
+@Entity
+@Table(name = "enrollment_archive", indexes = @Index(name = "idx_enrollment_archive_course", columnList = "course_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentArchive {
+
+    @Id
+    // AUTO-FILLED - ID the enrollment had before deletion
+    private Long id;
+
+    @Column(name = "enrollment_date", nullable = false)
+    private LocalDate enrollmentDate;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EnrollmentStatus status;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "archived_at", nullable = false)
+    // AUTO-FILLED - when the course was deleted
+    private LocalDateTime archivedAt;
+}
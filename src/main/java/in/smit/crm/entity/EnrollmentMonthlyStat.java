@@ -0,0 +1,30 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated enrollments: one row per month of enrollment date
+ * Maintained incrementally by EnrollmentStatService (never edited from frontend)
+ */
+@Entity
+@Table(name = "enrollment_monthly_stat")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentMonthlyStat {
+
+    @Id
+    @Column(name = "month_start")
+    // AUTO-FILLED - first day of the enrollment month
+    private LocalDate monthStart;
+
+    @Column(name = "enrollment_count", nullable = false)
+    // AUTO-FILLED - number of enrollments made in this month
+    private long enrollmentCount;
+}
@@ -0,0 +1,45 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress marker of an incremental background job
+ * lastValue is the highest source row ID the job has already processed,
+ * lastChangedAt the newest change time for jobs that follow an updated_at column instead
+ */
+@Entity
+@Table(name = "job_watermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobWatermark {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    // AUTO-FILLED by the job - e.g. "attendance-alert"
+    private String jobName;
+
+    @Column(name = "last_value", nullable = false)
+    // AUTO-FILLED by the job
+    private Long lastValue;
+
+    @Column(name = "last_changed_at")
+    // AUTO-FILLED by the job
+    private LocalDateTime lastChangedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    // AUTO-FILLED in backend using @PrePersist/@PreUpdate
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -9,7 +9,7 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notification")
+@Table(name = "notification", indexes = @Index(name = "idx_notification_audience_target", columnList = "audience, target_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,6 +28,23 @@ public class Notification {
     // FRONTEND INPUT REQUIRED
     private String message;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, updatable = false)
+    // FRONTEND INPUT REQUIRED - ALL, COURSE or STUDENT
+    private NotificationAudience audience;
+
+    @Column(name = "target_id", updatable = false)
+    // FRONTEND INPUT REQUIRED for COURSE (course ID) and STUDENT (student ID), no foreign key so deletes don't cascade
+    private Long targetId;
+
+    @Column(name = "audience_label", updatable = false)
+    // AUTO-FILLED in NotificationService - e.g. "Course: Java", kept after the course is gone
+    private String audienceLabel;
+
+    @Column(name = "max_student_id", updatable = false)
+    // AUTO-FILLED for ALL - highest student ID at send time, students registered later don't receive it
+    private Long maxStudentId;
+
     @Column(name = "created_date", nullable = false, updatable = false)
     // AUTO-FILLED in backend using @PrePersist
     private LocalDateTime createdDate;
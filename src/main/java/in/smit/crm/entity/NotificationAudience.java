@@ -0,0 +1,11 @@
+package in.smit.crm.entity;
+
+/**
+ * Enum for Notification Audience
+ * Who a notification was sent to; recipients are fixed when it is sent
+ */
+public enum NotificationAudience {
+    ALL, // Every student registered at send time
+    COURSE, // Students with an ACTIVE enrollment in the course at send time
+    STUDENT // One student
+}
@@ -0,0 +1,46 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import jakarta.persistence.*;
+
+/**
+ * Recipients and read state of one notification, as CompactIdSet bitmaps of student IDs
+ * One row per notification instead of one per recipient; kept apart from Notification so lists skip the blobs
+ * Maintained by NotificationInboxService (never edited from frontend)
+ */
+@Entity
+@Table(name = "notification_delivery")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDelivery {
+
+    @Id
+    @Column(name = "notification_id")
+    // AUTO-FILLED - ID of the notification
+    private Long notificationId;
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    // AUTO-FILLED - student IDs (COURSE / STUDENT audience), null for ALL (see Notification.maxStudentId)
+    @ToString.Exclude
+    private byte[] recipients;
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    // AUTO-FILLED - student IDs that have read the notification
+    @ToString.Exclude
+    private byte[] readers;
+
+    @Column(name = "recipient_count", nullable = false)
+    // AUTO-FILLED - number of recipients at send time
+    private int recipientCount;
+
+    @Column(name = "read_count", nullable = false)
+    // AUTO-FILLED - number of recipients that have read it
+    private int readCount;
+}
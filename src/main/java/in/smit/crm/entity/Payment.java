@@ -10,7 +10,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "payment")
+@Table(name = "payment", indexes = @Index(name = "idx_payment_date_id", columnList = "payment_date, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,50 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated payments: one row per status, per method, per month
+ * Maintained incrementally by PaymentAggregateService (never edited from frontend)
+ */
+@Entity
+@Table(name = "payment_aggregate",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "status", "payment_method", "month_start" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // AUTO-FILLED by database
+    private Long id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    // AUTO-FILLED - PENDING, COMPLETED, FAILED, REFUNDED
+    private PaymentStatus status;
+
+    @Column(name = "payment_method", nullable = false)
+    @Enumerated(EnumType.STRING)
+    // AUTO-FILLED - CASH, CREDIT_CARD, DEBIT_CARD, UPI, NET_BANKING, CHEQUE
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "month_start", nullable = false)
+    // AUTO-FILLED - first day of the payment month
+    private LocalDate monthStart;
+
+    @Column(name = "total_amount", nullable = false)
+    // AUTO-FILLED - sum of payment amounts in this bucket
+    private BigDecimal totalAmount;
+
+    @Column(name = "payment_count", nullable = false)
+    // AUTO-FILLED - number of payments in this bucket
+    private long paymentCount;
+}
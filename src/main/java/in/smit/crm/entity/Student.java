@@ -1,5 +1,6 @@
 package in.smit.crm.entity;
 
+import in.smit.crm.util.ContactKeys;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,7 +9,10 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Entity
-@Table(name = "student")
+@Table(name = "student", indexes = {
+        @Index(name = "idx_student_last_name_id", columnList = "last_name, id"),
+        @Index(name = "idx_student_email_key", columnList = "email_key"),
+        @Index(name = "idx_student_phone_key", columnList = "phone_key") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,6 +43,14 @@ public class Student {
     // FRONTEND INPUT OPTIONAL
     private String address;
 
+    @Column(name = "email_key")
+    // AUTO-FILLED in backend using @PrePersist / @PreUpdate (ContactKeys.emailKey)
+    private String emailKey;
+
+    @Column(name = "phone_key", length = 20)
+    // AUTO-FILLED in backend using @PrePersist / @PreUpdate (ContactKeys.phoneKey)
+    private String phoneKey;
+
     @Column(name = "dob", nullable = false)
     // FRONTEND INPUT REQUIRED - Date of Birth
     private LocalDate dob;
@@ -66,5 +78,12 @@ public class Student {
     @PrePersist
     protected void onCreate() {
         enrollmentDate = LocalDate.now();
+        onUpdate();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        emailKey = ContactKeys.emailKey(email);
+        phoneKey = ContactKeys.phoneKey(phone);
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized dues of a student: fees billed minus completed payments
+ * Maintained by StudentBalanceService (never edited from frontend)
+ */
+@Entity
+@Table(name = "student_balance", indexes = @Index(name = "idx_student_balance_balance_id", columnList = "balance, student_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentBalance {
+
+    @Id
+    @Column(name = "student_id")
+    // AUTO-FILLED - ID of the student
+    private Long studentId;
+
+    // Read-only link for listing names (rows are written with native SQL)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @ToString.Exclude
+    private Student student;
+
+    @Column(name = "fees_billed", nullable = false)
+    // AUTO-FILLED - sum of course fees over enrollments that are not DROPPED
+    private BigDecimal feesBilled;
+
+    @Column(name = "total_paid", nullable = false)
+    // AUTO-FILLED - sum of COMPLETED payments
+    private BigDecimal totalPaid;
+
+    @Column(nullable = false)
+    // AUTO-FILLED - feesBilled - totalPaid (positive means the student owes money)
+    private BigDecimal balance;
+
+    @Column(name = "refreshed_at", nullable = false)
+    // AUTO-FILLED - time of the last refresh
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,28 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+/**
+ * Unread notification counter of a student, read by the student portal badge with one key lookup
+ * Maintained by NotificationInboxService (never edited from frontend); no row means nothing unread
+ */
+@Entity
+@Table(name = "student_inbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentInbox {
+
+    @Id
+    @Column(name = "student_id")
+    // AUTO-FILLED - ID of the student
+    private Long studentId;
+
+    @Column(name = "unread_count", nullable = false)
+    // AUTO-FILLED - notifications sent to the student and not read yet
+    private int unreadCount;
+}
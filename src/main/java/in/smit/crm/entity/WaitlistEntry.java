@@ -0,0 +1,57 @@
+package in.smit.crm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A student's place in the waitlist of a full course
+ * Served first come, first served (lowest ID first) when a seat is released
+ */
+@Entity
+@Table(name = "waitlist_entry", indexes = @Index(name = "idx_waitlist_course_status_id", columnList = "course_id, status, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // AUTO-FILLED by database
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    // FRONTEND INPUT REQUIRED - send student_id
+    private Student student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    // FRONTEND INPUT REQUIRED - send course_id
+    private Course course;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    // AUTO-FILLED - starts as WAITING
+    private WaitlistStatus status;
+
+    @Column(name = "joined_at", nullable = false, updatable = false)
+    // AUTO-FILLED in backend using @PrePersist
+    private LocalDateTime joinedAt;
+
+    @Column(name = "resolved_at")
+    // AUTO-FILLED when the entry is promoted or cancelled
+    private LocalDateTime resolvedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        joinedAt = LocalDateTime.now();
+        if (status == null) {
+            status = WaitlistStatus.WAITING;
+        }
+    }
+}
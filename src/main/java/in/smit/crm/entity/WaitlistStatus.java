@@ -0,0 +1,11 @@
+package in.smit.crm.entity;
+
+/**
+ * Enum for Waitlist Status
+ * Represents the state of a student's place in a course waitlist
+ */
+public enum WaitlistStatus {
+    WAITING, // Queued for the next free seat
+    PROMOTED, // Moved into an ACTIVE enrollment
+    CANCELLED // Removed by admin or already enrolled when the seat opened
+}
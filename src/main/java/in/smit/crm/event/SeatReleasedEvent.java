@@ -0,0 +1,15 @@
+package in.smit.crm.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when a course may have a free seat again
+ * (an ACTIVE enrollment left the course, seats were recounted or a student joined the waitlist)
+ */
+@Data
+@AllArgsConstructor
+public class SeatReleasedEvent {
+
+    private Long courseId;
+}
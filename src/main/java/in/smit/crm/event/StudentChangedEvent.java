@@ -0,0 +1,25 @@
+package in.smit.crm.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when a student profile was saved or deleted
+ * (carries the searchable fields so listeners don't have to reload the row)
+ */
+@Data
+@AllArgsConstructor
+public class StudentChangedEvent {
+
+    private Long studentId;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private String phone;
+
+    private boolean deleted;
+}
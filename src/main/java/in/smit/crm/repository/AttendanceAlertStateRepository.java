@@ -0,0 +1,12 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.entity.AttendanceAlertState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for AttendanceAlertState entity
+ */
+@Repository
+public interface AttendanceAlertStateRepository extends JpaRepository<AttendanceAlertState, Long> {
+}
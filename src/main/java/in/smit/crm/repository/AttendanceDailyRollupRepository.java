@@ -0,0 +1,61 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.entity.AttendanceDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for AttendanceDailyRollup entity
+ * Handles incremental updates and trend reads of the attendance roll-up
+ */
+@Repository
+public interface AttendanceDailyRollupRepository extends JpaRepository<AttendanceDailyRollup, Long> {
+
+    // Add delta to a (course, date, status) bucket, creating the bucket if missing
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup (course_id, date, status, record_count) " +
+            "VALUES (:courseId, :date, :status, :delta) " +
+            "ON DUPLICATE KEY UPDATE record_count = record_count + :delta", nativeQuery = true)
+    void applyDelta(@Param("courseId") Long courseId,
+            @Param("date") LocalDate date,
+            @Param("status") String status,
+            @Param("delta") long delta);
+
+    // Find buckets of a course in a date range (for trend charts)
+    List<AttendanceDailyRollup> findByCourseIdAndDateBetweenOrderByDateAsc(
+            Long courseId, LocalDate startDate, LocalDate endDate);
+
+    // Find buckets of all courses in a date range
+    List<AttendanceDailyRollup> findByDateBetweenOrderByDateAsc(LocalDate startDate, LocalDate endDate);
+
+    // Totals per course and status in a date range: [course ID, course name, status, count]
+    @Query("SELECT c.id, c.courseName, r.status, SUM(r.recordCount) FROM AttendanceDailyRollup r " +
+            "JOIN Course c ON c.id = r.courseId WHERE r.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY c.id, c.courseName, r.status ORDER BY c.courseName, c.id")
+    List<Object[]> sumByCourseAndStatus(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Remove every bucket (first step of a rebuild)
+    @Modifying
+    @Query("DELETE FROM AttendanceDailyRollup r")
+    int deleteAllBuckets();
+
+    // Remove buckets of a course
+    @Modifying
+    @Query("DELETE FROM AttendanceDailyRollup r WHERE r.courseId = :courseId")
+    int deleteByCourse(@Param("courseId") Long courseId);
+
+    // Recompute every bucket from the raw attendance table
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup (course_id, date, status, record_count) " +
+            "SELECT e.course_id, a.date, a.status, COUNT(*) FROM attendance a " +
+            "JOIN enrollment e ON e.id = a.enrollment_id " +
+            "GROUP BY e.course_id, a.date, a.status", nativeQuery = true)
+    int rebuildAllBuckets();
+}
@@ -1,16 +1,25 @@
 package in.smit.crm.repository;
 
+import in.smit.crm.dto.AttendanceSummary;
 import in.smit.crm.entity.Attendance;
 import in.smit.crm.entity.Enrollment;
 import in.smit.crm.entity.AttendanceStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Attendance entity
@@ -47,14 +56,132 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     // Check if attendance already marked for a specific enrollment and date
     boolean existsByEnrollmentIdAndDate(Long enrollmentId, LocalDate date);
 
+    // Find attendance with its enrollment, student and course (for edit.html)
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.enrollment e JOIN FETCH e.student JOIN FETCH e.course " +
+            "WHERE a.id = :id")
+    Optional<Attendance> findWithEnrollmentById(@Param("id") Long id);
+
+    // Keyset page of attendance, newest first (student and course fetched in the same query)
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.enrollment e JOIN FETCH e.student JOIN FETCH e.course " +
+            "WHERE (:status IS NULL OR a.status = :status) AND (:date IS NULL OR a.date = :date) " +
+            "AND (:afterDate IS NULL OR a.date < :afterDate OR (a.date = :afterDate AND a.id < :afterId)) " +
+            "ORDER BY a.date DESC, a.id DESC")
+    List<Attendance> findPageNewestFirst(@Param("status") AttendanceStatus status,
+            @Param("date") LocalDate date,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Keyset page of attendance, oldest first
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.enrollment e JOIN FETCH e.student JOIN FETCH e.course " +
+            "WHERE (:status IS NULL OR a.status = :status) AND (:date IS NULL OR a.date = :date) " +
+            "AND (:afterDate IS NULL OR a.date > :afterDate OR (a.date = :afterDate AND a.id > :afterId)) " +
+            "ORDER BY a.date ASC, a.id ASC")
+    List<Attendance> findPageOldestFirst(@Param("status") AttendanceStatus status,
+            @Param("date") LocalDate date,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Find which of the given enrollments already have attendance on a date (one set-based lookup)
+    @Query("SELECT a.enrollment.id FROM Attendance a WHERE a.enrollment.id IN :enrollmentIds AND a.date = :date")
+    List<Long> findMarkedEnrollmentIds(
+            @Param("enrollmentIds") Collection<Long> enrollmentIds,
+            @Param("date") LocalDate date);
+
+    // Stream attendance rows for CSV export through a forward-only cursor
+    // Columns: id, date, status, first name, last name, email, course name
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT a.id, a.date, a.status, s.firstName, s.lastName, s.email, c.courseName " +
+            "FROM Attendance a JOIN a.enrollment e JOIN e.student s JOIN e.course c " +
+            "WHERE a.date BETWEEN :startDate AND :endDate ORDER BY a.id")
+    Stream<Object[]> streamForExport(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Find (enrollment ID, date) pairs already marked for the given enrollments in a date range
+    @Query("SELECT a.enrollment.id, a.date FROM Attendance a " +
+            "WHERE a.enrollment.id IN :enrollmentIds AND a.date BETWEEN :startDate AND :endDate")
+    List<Object[]> findMarkedPairs(@Param("enrollmentIds") Collection<Long> enrollmentIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Highest attendance ID (watermark source for incremental jobs)
+    @Query("SELECT MAX(a.id) FROM Attendance a")
+    Long findMaxId();
+
+    // Enrollments that received attendance rows with IDs in (afterId, upToId]
+    @Query("SELECT DISTINCT a.enrollment.id FROM Attendance a WHERE a.id > :afterId AND a.id <= :upToId")
+    List<Long> findEnrollmentIdsWithNewRows(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // Newest attendance change time (watermark source for incremental jobs)
+    @Query("SELECT MAX(a.updatedAt) FROM Attendance a")
+    LocalDateTime findLastChangedAt();
+
+    // Enrollments with attendance rows inserted or edited in (after, upTo]
+    @Query("SELECT DISTINCT a.enrollment.id FROM Attendance a WHERE a.updatedAt > :after AND a.updatedAt <= :upTo")
+    List<Long> findEnrollmentIdsChangedBetween(@Param("after") LocalDateTime after,
+            @Param("upTo") LocalDateTime upTo);
+
+    // Latest N statuses per enrollment, newest first: [enrollment_id, status]
+    @Query(value = "SELECT t.enrollment_id, t.status FROM (" +
+            "SELECT a.enrollment_id, a.status, " +
+            "ROW_NUMBER() OVER (PARTITION BY a.enrollment_id ORDER BY a.date DESC) AS rn " +
+            "FROM attendance a WHERE a.enrollment_id IN (:enrollmentIds)) t " +
+            "WHERE t.rn <= :limit ORDER BY t.enrollment_id, t.rn", nativeQuery = true)
+    List<Object[]> findLatestStatuses(@Param("enrollmentIds") Collection<Long> enrollmentIds,
+            @Param("limit") int limit);
+
     // Count attendance by status for a specific enrollment
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.enrollment.id = :enrollmentId AND a.status = :status")
     long countByEnrollmentAndStatus(
             @Param("enrollmentId") Long enrollmentId,
             @Param("status") AttendanceStatus status);
 
+    // Count attendance by status for many enrollments at once (one row per enrollment)
+    @Query("SELECT new in.smit.crm.dto.AttendanceSummary(a.enrollment.id, " +
+            "SUM(CASE WHEN a.status = 'PRESENT' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.status = 'ABSENT' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.status = 'LATE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.status = 'EXCUSED' THEN 1 ELSE 0 END), " +
+            "COUNT(a)) " +
+            "FROM Attendance a WHERE a.enrollment.id IN :enrollmentIds GROUP BY a.enrollment.id")
+    List<AttendanceSummary> summarizeByEnrollmentIds(@Param("enrollmentIds") Collection<Long> enrollmentIds);
+
+    // Count attendance by status for every enrollment of a student (one row per enrollment with attendance)
+    @Query("SELECT new in.smit.crm.dto.AttendanceSummary(a.enrollment.id, " +
+            "SUM(CASE WHEN a.status = 'PRESENT' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.status = 'ABSENT' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.status = 'LATE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.status = 'EXCUSED' THEN 1 ELSE 0 END), " +
+            "COUNT(a)) " +
+            "FROM Attendance a WHERE a.enrollment.student.id = :studentId GROUP BY a.enrollment.id")
+    List<AttendanceSummary> summarizeByStudentId(@Param("studentId") Long studentId);
+
+    // Count attendance of an enrollment grouped by date and status: [date, status, count]
+    @Query("SELECT a.date, a.status, COUNT(a) FROM Attendance a WHERE a.enrollment.id = :enrollmentId " +
+            "GROUP BY a.date, a.status")
+    List<Object[]> countByEnrollmentGroupedByDateAndStatus(@Param("enrollmentId") Long enrollmentId);
+
+    // Count attendance of a student's enrollments grouped by course, date and status: [course ID, date, status, count]
+    @Query("SELECT e.course.id, a.date, a.status, COUNT(a) FROM Attendance a JOIN a.enrollment e " +
+            "WHERE e.student.id = :studentId GROUP BY e.course.id, a.date, a.status")
+    List<Object[]> countByStudentGroupedByCourseDateAndStatus(@Param("studentId") Long studentId);
+
+    // Count all attendance grouped by course, date and status: [course ID, date, status, count]
+    @Query("SELECT e.course.id, a.date, a.status, COUNT(a) FROM Attendance a JOIN a.enrollment e " +
+            "GROUP BY e.course.id, a.date, a.status")
+    List<Object[]> countGroupedByCourseDateAndStatus();
+
     // Calculate attendance percentage for an enrollment
     @Query("SELECT (COUNT(a) * 100.0 / (SELECT COUNT(a2) FROM Attendance a2 WHERE a2.enrollment.id = :enrollmentId)) " +
             "FROM Attendance a WHERE a.enrollment.id = :enrollmentId AND a.status = 'PRESENT'")
     Double calculateAttendancePercentage(@Param("enrollmentId") Long enrollmentId);
-}
\ No newline at end of file
+
+    // Delete every attendance record of a course in one statement
+    @Modifying
+    @Query(value = "DELETE FROM attendance WHERE enrollment_id IN " +
+            "(SELECT id FROM enrollment WHERE course_id = :courseId)", nativeQuery = true)
+    int deleteByCourseId(@Param("courseId") Long courseId);
+}
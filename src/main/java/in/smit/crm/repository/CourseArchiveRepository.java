@@ -0,0 +1,37 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.entity.CourseArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for CourseArchive entity
+ * Copies a course and its enrollments and attendance into the archive tables with set-based statements
+ */
+@Repository
+public interface CourseArchiveRepository extends JpaRepository<CourseArchive, Long> {
+
+    // Copy the course row
+    @Modifying
+    @Query(value = "INSERT INTO course_archive (id, course_name, description, duration, fees, capacity, " +
+            "start_date, end_date, archived_at) SELECT id, course_name, description, duration, fees, capacity, " +
+            "start_date, end_date, CURRENT_TIMESTAMP FROM course WHERE id = :courseId", nativeQuery = true)
+    int archiveCourse(@Param("courseId") Long courseId);
+
+    // Copy every enrollment of the course
+    @Modifying
+    @Query(value = "INSERT INTO enrollment_archive (id, enrollment_date, status, student_id, course_id, archived_at) " +
+            "SELECT id, enrollment_date, status, student_id, course_id, CURRENT_TIMESTAMP FROM enrollment " +
+            "WHERE course_id = :courseId", nativeQuery = true)
+    int archiveEnrollments(@Param("courseId") Long courseId);
+
+    // Copy every attendance record of the course
+    @Modifying
+    @Query(value = "INSERT INTO attendance_archive (id, date, status, enrollment_id, archived_at) " +
+            "SELECT a.id, a.date, a.status, a.enrollment_id, CURRENT_TIMESTAMP FROM attendance a " +
+            "JOIN enrollment e ON e.id = a.enrollment_id WHERE e.course_id = :courseId", nativeQuery = true)
+    int archiveAttendance(@Param("courseId") Long courseId);
+}
@@ -0,0 +1,33 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.entity.CourseEnrollmentStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for CourseEnrollmentStat entity
+ * Handles incremental updates of per-course enrollment counts
+ */
+@Repository
+public interface CourseEnrollmentStatRepository extends JpaRepository<CourseEnrollmentStat, Long> {
+
+    // Add delta to a course and status, creating the row if missing
+    @Modifying
+    @Query(value = "INSERT INTO course_enrollment_stat (course_id, status, enrollment_count) " +
+            "VALUES (:courseId, :status, :delta) " +
+            "ON DUPLICATE KEY UPDATE enrollment_count = enrollment_count + :delta", nativeQuery = true)
+    void applyDelta(@Param("courseId") Long courseId, @Param("status") String status, @Param("delta") long delta);
+
+    // Remove the rows of a course (before the course is deleted)
+    @Modifying
+    @Query("DELETE FROM CourseEnrollmentStat s WHERE s.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+
+    // Remove every row (first step of a rebuild)
+    @Modifying
+    @Query("DELETE FROM CourseEnrollmentStat s")
+    int deleteAllCounts();
+}
@@ -2,11 +2,14 @@ package in.smit.crm.repository;
 
 import in.smit.crm.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,7 +42,53 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     // Find courses by start date range
     List<Course> findByStartDateBetween(LocalDate startDate, LocalDate endDate);
 
+    // Find fees of a course without loading it
+    @Query("SELECT c.fees FROM Course c WHERE c.id = :courseId")
+    Optional<BigDecimal> findFeesById(@Param("courseId") Long courseId);
+
+    // Find capacity of a course without loading it
+    @Query("SELECT c.capacity FROM Course c WHERE c.id = :courseId")
+    Optional<Integer> findCapacityById(@Param("courseId") Long courseId);
+
+    // Taken seats of every course: [course ID, seats taken]
+    @Query("SELECT c.id, c.seatsTaken FROM Course c")
+    List<Object[]> findAllSeatsTaken();
+
+    // Take one seat if the course is not full (atomic, row lock on the course until commit)
+    @Modifying
+    @Query("UPDATE Course c SET c.seatsTaken = c.seatsTaken + 1 " +
+            "WHERE c.id = :courseId AND (c.capacity IS NULL OR c.seatsTaken < c.capacity)")
+    int claimSeat(@Param("courseId") Long courseId);
+
+    // Take several seats at once if they all fit (atomic, row lock on the course until commit)
+    @Modifying
+    @Query(value = "UPDATE course SET seats_taken = seats_taken + :count " +
+            "WHERE id = :courseId AND (capacity IS NULL OR seats_taken + :count <= capacity)", nativeQuery = true)
+    int claimSeats(@Param("courseId") Long courseId, @Param("count") int count);
+
+    // Give one seat back
+    @Modifying
+    @Query("UPDATE Course c SET c.seatsTaken = c.seatsTaken - 1 WHERE c.id = :courseId AND c.seatsTaken > 0")
+    int releaseSeat(@Param("courseId") Long courseId);
+
+    // Recompute taken seats of some courses from their ACTIVE enrollments
+    @Modifying
+    @Query(value = "UPDATE course c SET seats_taken = (SELECT COUNT(*) FROM enrollment e " +
+            "WHERE e.course_id = c.id AND e.status = 'ACTIVE') WHERE c.id IN (:courseIds)", nativeQuery = true)
+    int recountSeats(@Param("courseIds") Collection<Long> courseIds);
+
+    // Recompute taken seats of every course
+    @Modifying
+    @Query(value = "UPDATE course c SET seats_taken = (SELECT COUNT(*) FROM enrollment e " +
+            "WHERE e.course_id = c.id AND e.status = 'ACTIVE')", nativeQuery = true)
+    int recountAllSeats();
+
     // Count total courses
     @Query("SELECT COUNT(c) FROM Course c")
     long countTotalCourses();
-}
\ No newline at end of file
+
+    // Delete a course row without loading its enrollments (children must be gone already)
+    @Modifying
+    @Query("DELETE FROM Course c WHERE c.id = :courseId")
+    int deleteCourseById(@Param("courseId") Long courseId);
+}
@@ -0,0 +1,34 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.entity.EnrollmentMonthlyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for EnrollmentMonthlyStat entity
+ * Handles incremental updates and chart reads of monthly enrollment counts
+ */
+@Repository
+public interface EnrollmentMonthlyStatRepository extends JpaRepository<EnrollmentMonthlyStat, LocalDate> {
+
+    // Add delta to a month, creating the month if missing
+    @Modifying
+    @Query(value = "INSERT INTO enrollment_monthly_stat (month_start, enrollment_count) " +
+            "VALUES (:monthStart, :delta) " +
+            "ON DUPLICATE KEY UPDATE enrollment_count = enrollment_count + :delta", nativeQuery = true)
+    void applyDelta(@Param("monthStart") LocalDate monthStart, @Param("delta") long delta);
+
+    // Find months in a range (for enrollment charts)
+    List<EnrollmentMonthlyStat> findByMonthStartBetweenOrderByMonthStartAsc(LocalDate startMonth, LocalDate endMonth);
+
+    // Remove every month (first step of a rebuild)
+    @Modifying
+    @Query("DELETE FROM EnrollmentMonthlyStat m")
+    int deleteAllMonths();
+}
@@ -1,17 +1,26 @@
 package in.smit.crm.repository;
 
+import in.smit.crm.dto.EnrollmentListItem;
 import in.smit.crm.entity.Enrollment;
 import in.smit.crm.entity.Student;
 import in.smit.crm.entity.Course;
 import in.smit.crm.entity.EnrollmentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Enrollment entity
@@ -24,6 +33,7 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     List<Enrollment> findByStudent(Student student);
 
     // Find all enrollments by student ID
+    @EntityGraph(attributePaths = "course")
     List<Enrollment> findByStudentId(Long studentId);
 
     // Find all enrollments by course
@@ -36,25 +46,185 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     List<Enrollment> findByStatus(EnrollmentStatus status);
 
     // Find enrollments by student and status
+    @EntityGraph(attributePaths = "course")
     List<Enrollment> findByStudentIdAndStatus(Long studentId, EnrollmentStatus status);
 
     // Find enrollments by course and status
     List<Enrollment> findByCourseIdAndStatus(Long courseId, EnrollmentStatus status);
 
+    // Find course roster (student and course fetched in the same query)
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course " +
+            "WHERE e.course.id = :courseId AND e.status = :status ORDER BY e.student.firstName, e.student.lastName")
+    List<Enrollment> findRosterByCourseId(
+            @Param("courseId") Long courseId,
+            @Param("status") EnrollmentStatus status);
+
+    // Find all enrollments with student and course (for enrollment dropdowns)
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course ORDER BY e.id")
+    List<Enrollment> findAllWithStudentAndCourse();
+
+    // Keyset page of enrollments, newest first (projected with student and course in one query)
+    @Query("SELECT new in.smit.crm.dto.EnrollmentListItem(e.id, s.id, s.firstName, s.lastName, " +
+            "c.id, c.courseName, e.enrollmentDate, e.status) FROM Enrollment e JOIN e.student s JOIN e.course c " +
+            "WHERE (:status IS NULL OR e.status = :status) AND (:courseId IS NULL OR e.course.id = :courseId) " +
+            "AND (:afterDate IS NULL OR e.enrollmentDate < :afterDate " +
+            "OR (e.enrollmentDate = :afterDate AND e.id < :afterId)) " +
+            "ORDER BY e.enrollmentDate DESC, e.id DESC")
+    List<EnrollmentListItem> findPageNewestFirst(@Param("status") EnrollmentStatus status,
+            @Param("courseId") Long courseId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Keyset page of enrollments, oldest first
+    @Query("SELECT new in.smit.crm.dto.EnrollmentListItem(e.id, s.id, s.firstName, s.lastName, " +
+            "c.id, c.courseName, e.enrollmentDate, e.status) FROM Enrollment e JOIN e.student s JOIN e.course c " +
+            "WHERE (:status IS NULL OR e.status = :status) AND (:courseId IS NULL OR e.course.id = :courseId) " +
+            "AND (:afterDate IS NULL OR e.enrollmentDate > :afterDate " +
+            "OR (e.enrollmentDate = :afterDate AND e.id > :afterId)) " +
+            "ORDER BY e.enrollmentDate ASC, e.id ASC")
+    List<EnrollmentListItem> findPageOldestFirst(@Param("status") EnrollmentStatus status,
+            @Param("courseId") Long courseId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Find enrollment IDs of a course by status
+    @Query("SELECT e.id FROM Enrollment e WHERE e.course.id = :courseId AND e.status = :status")
+    List<Long> findIdsByCourseIdAndStatus(
+            @Param("courseId") Long courseId,
+            @Param("status") EnrollmentStatus status);
+
+    // Find course ID of an enrollment without loading the enrollment
+    @Query("SELECT e.course.id FROM Enrollment e WHERE e.id = :enrollmentId")
+    Optional<Long> findCourseIdById(@Param("enrollmentId") Long enrollmentId);
+
+    // Labels of a status's enrollments of some students, optionally in one course (typeahead)
+    // Columns: enrollment ID, student ID, first name, last name, course name
+    @Query("SELECT e.id, s.id, s.firstName, s.lastName, c.courseName FROM Enrollment e JOIN e.student s JOIN e.course c " +
+            "WHERE s.id IN :studentIds AND e.status = :status AND (:courseId IS NULL OR c.id = :courseId)")
+    List<Object[]> findLabelsByStudentIds(@Param("studentIds") Collection<Long> studentIds,
+            @Param("status") EnrollmentStatus status,
+            @Param("courseId") Long courseId);
+
+    // Find enrollment with its student and course (for edit.html)
+    @EntityGraph(attributePaths = { "student", "course" })
+    Optional<Enrollment> findWithStudentAndCourseById(Long id);
+
+    // Labels of enrollments by status: [enrollment ID, first name, last name, course name, student ID]
+    @Query("SELECT e.id, s.firstName, s.lastName, c.courseName, s.id FROM Enrollment e JOIN e.student s JOIN e.course c " +
+            "WHERE e.id IN :enrollmentIds AND e.status = :status")
+    List<Object[]> findLabelsByIdsAndStatus(@Param("enrollmentIds") Collection<Long> enrollmentIds,
+            @Param("status") EnrollmentStatus status);
+
+    // Seat-relevant state of an enrollment: [status, course ID, student ID]
+    @Query("SELECT e.status, e.course.id, e.student.id FROM Enrollment e WHERE e.id = :enrollmentId")
+    List<Object[]> findSeatStateById(@Param("enrollmentId") Long enrollmentId);
+
+    // Courses a student is enrolled in, in any status
+    @Query("SELECT DISTINCT e.course.id FROM Enrollment e WHERE e.student.id = :studentId")
+    List<Long> findCourseIdsByStudentId(@Param("studentId") Long studentId);
+
+    // Find student ID of an enrollment without loading it
+    @Query("SELECT e.student.id FROM Enrollment e WHERE e.id = :enrollmentId")
+    Optional<Long> findStudentIdById(@Param("enrollmentId") Long enrollmentId);
+
+    // Students enrolled in a course, in any status
+    @Query("SELECT DISTINCT e.student.id FROM Enrollment e WHERE e.course.id = :courseId")
+    List<Long> findStudentIdsByCourseId(@Param("courseId") Long courseId);
+
+    // Students of a course by enrollment status
+    @Query("SELECT DISTINCT e.student.id FROM Enrollment e WHERE e.course.id = :courseId AND e.status = :status")
+    List<Long> findStudentIdsByCourseIdAndStatus(@Param("courseId") Long courseId,
+            @Param("status") EnrollmentStatus status);
+
+    // Enrollments per month of enrollment date: [year, month, count]
+    @Query("SELECT YEAR(e.enrollmentDate), MONTH(e.enrollmentDate), COUNT(e) FROM Enrollment e " +
+            "GROUP BY YEAR(e.enrollmentDate), MONTH(e.enrollmentDate)")
+    List<Object[]> countGroupedByMonth();
+
+    // Enrollments of a course per month of enrollment date: [year, month, count]
+    @Query("SELECT YEAR(e.enrollmentDate), MONTH(e.enrollmentDate), COUNT(e) FROM Enrollment e " +
+            "WHERE e.course.id = :courseId GROUP BY YEAR(e.enrollmentDate), MONTH(e.enrollmentDate)")
+    List<Object[]> countByCourseGroupedByMonth(@Param("courseId") Long courseId);
+
+    // Enrollments of a student per month of enrollment date: [year, month, count]
+    @Query("SELECT YEAR(e.enrollmentDate), MONTH(e.enrollmentDate), COUNT(e) FROM Enrollment e " +
+            "WHERE e.student.id = :studentId GROUP BY YEAR(e.enrollmentDate), MONTH(e.enrollmentDate)")
+    List<Object[]> countByStudentGroupedByMonth(@Param("studentId") Long studentId);
+
+    // Count enrollments per course and status: [course ID, status, count]
+    @Query("SELECT e.course.id, e.status, COUNT(e) FROM Enrollment e GROUP BY e.course.id, e.status")
+    List<Object[]> countGroupedByCourseAndStatus();
+
+    // Count enrollments of a student per course and status: [course ID, status, count]
+    @Query("SELECT e.course.id, e.status, COUNT(e) FROM Enrollment e " +
+            "WHERE e.student.id = :studentId GROUP BY e.course.id, e.status")
+    List<Object[]> countByStudentGroupedByCourseAndStatus(@Param("studentId") Long studentId);
+
+    // Find enrollment date of an enrollment without loading it
+    @Query("SELECT e.enrollmentDate FROM Enrollment e WHERE e.id = :enrollmentId")
+    Optional<LocalDate> findEnrollmentDateById(@Param("enrollmentId") Long enrollmentId);
+
     // Check if student is already enrolled in a course
     boolean existsByStudentIdAndCourseIdAndStatus(
             Long studentId, Long courseId, EnrollmentStatus status);
 
+    // Students (out of the given ones) that exist and have no enrollment of the status in the course
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :studentIds AND NOT EXISTS (SELECT 1 FROM Enrollment e " +
+            "WHERE e.student = s AND e.course.id = :courseId AND e.status = :status)")
+    List<Long> findStudentIdsNotEnrolled(@Param("courseId") Long courseId,
+            @Param("studentIds") Collection<Long> studentIds, @Param("status") EnrollmentStatus status);
+
+    // Students who joined within a date range and have no enrollment of the status in the course
+    @Query("SELECT s.id FROM Student s WHERE s.enrollmentDate BETWEEN :joinedFrom AND :joinedTo AND NOT EXISTS " +
+            "(SELECT 1 FROM Enrollment e WHERE e.student = s AND e.course.id = :courseId AND e.status = :status)")
+    List<Long> findStudentIdsJoinedBetweenNotEnrolled(@Param("courseId") Long courseId,
+            @Param("joinedFrom") LocalDate joinedFrom, @Param("joinedTo") LocalDate joinedTo,
+            @Param("status") EnrollmentStatus status);
+
+    // Flag ACTIVE rows written before active_flag existed (oldest per student and course wins)
+    @Modifying
+    @Query(value = "UPDATE enrollment SET active_flag = TRUE WHERE status = 'ACTIVE' AND active_flag IS NULL " +
+            "AND id IN (SELECT first_id FROM (SELECT MIN(id) AS first_id FROM enrollment WHERE status = 'ACTIVE' " +
+            "GROUP BY student_id, course_id HAVING COUNT(active_flag) = 0) unflagged)", nativeQuery = true)
+    int flagLegacyActiveEnrollments();
+
     // Find specific enrollment by student and course
     Optional<Enrollment> findByStudentIdAndCourseId(Long studentId, Long courseId);
 
     // Find enrollments by date range
     List<Enrollment> findByEnrollmentDateBetween(LocalDate startDate, LocalDate endDate);
 
+    // Stream enrollment rows for CSV export through a forward-only cursor
+    // Columns: id, enrollment date, status, first name, last name, email, course name
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT e.id, e.enrollmentDate, e.status, s.firstName, s.lastName, s.email, c.courseName " +
+            "FROM Enrollment e JOIN e.student s JOIN e.course c " +
+            "WHERE e.enrollmentDate BETWEEN :startDate AND :endDate ORDER BY e.id")
+    Stream<Object[]> streamForExport(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Stream import lookup keys through a forward-only cursor
+    // Columns: lower-cased student email, lower-cased course name, enrollment ID, course ID, status
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT LOWER(s.email), LOWER(c.courseName), e.id, c.id, e.status " +
+            "FROM Enrollment e JOIN e.student s JOIN e.course c ORDER BY e.id")
+    Stream<Object[]> streamImportKeys();
+
     // Count enrollments by course
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId")
     long countEnrollmentsByCourse(@Param("courseId") Long courseId);
 
     // Count active enrollments
     long countByStatus(EnrollmentStatus status);
-}
\ No newline at end of file
+
+    // Delete every enrollment of a course in one statement (attendance must be gone already)
+    @Modifying
+    @Query("DELETE FROM Enrollment e WHERE e.course.id = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+}
@@ -0,0 +1,24 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.entity.JobWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for JobWatermark entity
+ * Row lock keeps two app instances from running the same job at once
+ */
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+
+    // Find watermark and lock it until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM JobWatermark w WHERE w.jobName = :jobName")
+    Optional<JobWatermark> findForUpdate(@Param("jobName") String jobName);
+}
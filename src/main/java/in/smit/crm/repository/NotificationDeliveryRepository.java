@@ -0,0 +1,51 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.dto.DeliveryStats;
+import in.smit.crm.entity.NotificationDelivery;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for NotificationDelivery entity
+ * Row lock serializes read marks of one notification, since each rewrites the readers bitmap
+ */
+@Repository
+public interface NotificationDeliveryRepository extends JpaRepository<NotificationDelivery, Long> {
+
+    // Find delivery and lock it until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM NotificationDelivery d WHERE d.notificationId = :notificationId")
+    Optional<NotificationDelivery> findForUpdate(@Param("notificationId") Long notificationId);
+
+    // Recipient and read counts of some notifications, without the bitmaps
+    @Query("SELECT new in.smit.crm.dto.DeliveryStats(d.notificationId, d.recipientCount, d.readCount) " +
+            "FROM NotificationDelivery d WHERE d.notificationId IN :notificationIds")
+    List<DeliveryStats> findStatsByNotificationIds(@Param("notificationIds") Collection<Long> notificationIds);
+
+    // Recipients and readers of some notifications as plain columns, oldest first (mark all read)
+    // Columns: notification ID, recipients, readers
+    @Query("SELECT d.notificationId, d.recipients, d.readers FROM NotificationDelivery d " +
+            "WHERE d.notificationId IN :notificationIds ORDER BY d.notificationId")
+    List<Object[]> findReadStateByNotificationIds(@Param("notificationIds") Collection<Long> notificationIds);
+
+    // Recipients and readers of every notification, streamed for the unread count rebuild
+    // Columns: audience, max student ID, recipients, readers
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT n.audience, n.maxStudentId, d.recipients, d.readers FROM NotificationDelivery d, Notification n " +
+            "WHERE n.id = d.notificationId")
+    Stream<Object[]> streamReadState();
+}
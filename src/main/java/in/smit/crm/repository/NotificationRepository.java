@@ -1,12 +1,15 @@
 package in.smit.crm.repository;
 
 import in.smit.crm.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -37,6 +40,39 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n")
     long countTotalNotifications();
 
+    // Newest notifications that may be addressed to a student: broadcasts sent after they registered,
+    // their own and their courses' (COURSE ones are checked against the recipients afterwards)
+    @Query("SELECT n FROM Notification n WHERE n.createdDate >= :since AND (" +
+            "(n.audience = in.smit.crm.entity.NotificationAudience.ALL AND n.maxStudentId >= :studentId) " +
+            "OR (n.audience = in.smit.crm.entity.NotificationAudience.STUDENT AND n.targetId = :studentId) " +
+            "OR (n.audience = in.smit.crm.entity.NotificationAudience.COURSE AND n.targetId IN :courseIds)) " +
+            "ORDER BY n.createdDate DESC, n.id DESC")
+    List<Notification> findForStudent(@Param("studentId") Long studentId,
+            @Param("courseIds") Collection<Long> courseIds,
+            @Param("since") LocalDateTime since,
+            Limit limit);
+
+    // IDs of every notification that may be addressed to a student, in order after a given ID (mark all read)
+    @Query("SELECT n.id FROM Notification n WHERE n.id > :afterId AND (" +
+            "(n.audience = in.smit.crm.entity.NotificationAudience.ALL AND n.maxStudentId >= :studentId) " +
+            "OR (n.audience = in.smit.crm.entity.NotificationAudience.STUDENT AND n.targetId = :studentId) " +
+            "OR (n.audience = in.smit.crm.entity.NotificationAudience.COURSE AND n.targetId IN :courseIds)) " +
+            "ORDER BY n.id")
+    List<Long> findIdsForStudentAfterId(@Param("studentId") Long studentId,
+            @Param("courseIds") Collection<Long> courseIds,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Mark notifications sent before audiences existed as broadcasts to the current students
+    @Modifying
+    @Query("UPDATE Notification n SET n.audience = in.smit.crm.entity.NotificationAudience.ALL, " +
+            "n.audienceLabel = 'All students', n.maxStudentId = :maxStudentId WHERE n.audience IS NULL")
+    int backfillLegacyAudience(@Param("maxStudentId") Long maxStudentId);
+
+    // IDs of notifications sent before audiences existed
+    @Query("SELECT n.id FROM Notification n WHERE n.audience IS NULL")
+    List<Long> findLegacyIds();
+
     // Search notifications by title or message content
     @Query("SELECT n FROM Notification n WHERE LOWER(n.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "OR LOWER(n.message) LIKE LOWER(CONCAT('%', :keyword, '%'))")
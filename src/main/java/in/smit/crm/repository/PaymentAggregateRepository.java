@@ -0,0 +1,45 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.entity.PaymentAggregate;
+import in.smit.crm.entity.PaymentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for PaymentAggregate entity
+ * Handles incremental updates and reads of the payment counters
+ */
+@Repository
+public interface PaymentAggregateRepository extends JpaRepository<PaymentAggregate, Long> {
+
+    // Add deltas to a (status, method, month) bucket, creating the bucket if missing
+    @Modifying
+    @Query(value = "INSERT INTO payment_aggregate (status, payment_method, month_start, total_amount, payment_count) " +
+            "VALUES (:status, :method, :monthStart, :amountDelta, :countDelta) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + :amountDelta, " +
+            "payment_count = payment_count + :countDelta", nativeQuery = true)
+    void applyDelta(@Param("status") String status,
+            @Param("method") String method,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("amountDelta") BigDecimal amountDelta,
+            @Param("countDelta") long countDelta);
+
+    // Total amount of a status across all methods and months
+    @Query("SELECT COALESCE(SUM(a.totalAmount), 0) FROM PaymentAggregate a WHERE a.status = :status")
+    BigDecimal sumAmountByStatus(@Param("status") PaymentStatus status);
+
+    // Find buckets in a month range (for revenue charts)
+    List<PaymentAggregate> findByMonthStartBetweenOrderByMonthStartAsc(LocalDate startMonth, LocalDate endMonth);
+
+    // Remove every bucket (first step of a rebuild)
+    @Modifying
+    @Query("DELETE FROM PaymentAggregate a")
+    int deleteAllBuckets();
+}
@@ -1,17 +1,25 @@
 package in.smit.crm.repository;
 
+import in.smit.crm.dto.PaymentListItem;
 import in.smit.crm.entity.Payment;
 import in.smit.crm.entity.Student;
 import in.smit.crm.entity.PaymentMethod;
 import in.smit.crm.entity.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Payment entity
@@ -44,6 +52,41 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     // Find payments by amount range
     List<Payment> findByAmountBetween(BigDecimal minAmount, BigDecimal maxAmount);
 
+    // Find payment with its student (for edit.html)
+    @EntityGraph(attributePaths = "student")
+    Optional<Payment> findWithStudentById(Long id);
+
+    // Keyset page of payments, newest first (projected with student in one query)
+    @Query("SELECT new in.smit.crm.dto.PaymentListItem(p.id, s.id, s.firstName, s.lastName, " +
+            "p.amount, p.paymentDate, p.paymentMethod, p.status) FROM Payment p JOIN p.student s " +
+            "WHERE (:status IS NULL OR p.status = :status) AND (:method IS NULL OR p.paymentMethod = :method) " +
+            "AND (:afterDate IS NULL OR p.paymentDate < :afterDate " +
+            "OR (p.paymentDate = :afterDate AND p.id < :afterId)) " +
+            "ORDER BY p.paymentDate DESC, p.id DESC")
+    List<PaymentListItem> findPageNewestFirst(@Param("status") PaymentStatus status,
+            @Param("method") PaymentMethod method,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Keyset page of payments, oldest first
+    @Query("SELECT new in.smit.crm.dto.PaymentListItem(p.id, s.id, s.firstName, s.lastName, " +
+            "p.amount, p.paymentDate, p.paymentMethod, p.status) FROM Payment p JOIN p.student s " +
+            "WHERE (:status IS NULL OR p.status = :status) AND (:method IS NULL OR p.paymentMethod = :method) " +
+            "AND (:afterDate IS NULL OR p.paymentDate > :afterDate " +
+            "OR (p.paymentDate = :afterDate AND p.id > :afterId)) " +
+            "ORDER BY p.paymentDate ASC, p.id ASC")
+    List<PaymentListItem> findPageOldestFirst(@Param("status") PaymentStatus status,
+            @Param("method") PaymentMethod method,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Raw totals grouped like payment_aggregate: [status, method, year, month, amount, count]
+    @Query("SELECT p.status, p.paymentMethod, YEAR(p.paymentDate), MONTH(p.paymentDate), SUM(p.amount), COUNT(p) " +
+            "FROM Payment p GROUP BY p.status, p.paymentMethod, YEAR(p.paymentDate), MONTH(p.paymentDate)")
+    List<Object[]> sumGroupedByStatusMethodAndMonth();
+
     // Calculate total payments by student
     @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.student.id = :studentId AND p.status = 'COMPLETED'")
     BigDecimal calculateTotalPaymentsByStudent(@Param("studentId") Long studentId);
@@ -60,6 +103,17 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT p FROM Payment p WHERE p.paymentDate >= :startDate ORDER BY p.paymentDate DESC")
     List<Payment> findRecentPayments(@Param("startDate") LocalDate startDate);
 
+    // Stream payment rows for CSV export through a forward-only cursor
+    // Columns: id, payment date, amount, method, status, first name, last name, email
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT p.id, p.paymentDate, p.amount, p.paymentMethod, p.status, s.firstName, s.lastName, s.email " +
+            "FROM Payment p JOIN p.student s " +
+            "WHERE p.paymentDate BETWEEN :startDate AND :endDate ORDER BY p.id")
+    Stream<Object[]> streamForExport(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     // Count payments by status
     long countByStatus(PaymentStatus status);
 
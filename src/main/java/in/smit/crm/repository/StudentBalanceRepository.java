@@ -0,0 +1,78 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.entity.StudentBalance;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for StudentBalance entity
+ * Handles set-wise refreshes and defaulter listings of student dues
+ */
+@Repository
+public interface StudentBalanceRepository extends JpaRepository<StudentBalance, Long> {
+
+    // Remove every balance (first step of a full refresh)
+    @Modifying
+    @Query("DELETE FROM StudentBalance b")
+    int deleteAllBalances();
+
+    // Compute balances of every student with one grouped pass over enrollments and payments
+    @Modifying
+    @Query(value = "INSERT INTO student_balance (student_id, fees_billed, total_paid, balance, refreshed_at) " +
+            "SELECT s.id, COALESCE(f.billed, 0), COALESCE(p.paid, 0), " +
+            "COALESCE(f.billed, 0) - COALESCE(p.paid, 0), CURRENT_TIMESTAMP FROM student s " +
+            "LEFT JOIN (SELECT e.student_id, SUM(c.fees) AS billed FROM enrollment e " +
+            "JOIN course c ON c.id = e.course_id WHERE e.status <> 'DROPPED' GROUP BY e.student_id) f " +
+            "ON f.student_id = s.id " +
+            "LEFT JOIN (SELECT py.student_id, SUM(py.amount) AS paid FROM payment py " +
+            "WHERE py.status = 'COMPLETED' GROUP BY py.student_id) p ON p.student_id = s.id",
+            nativeQuery = true)
+    int insertAllBalances();
+
+    // Remove balances of some students (before recomputing them)
+    @Modifying
+    @Query("DELETE FROM StudentBalance b WHERE b.studentId IN :studentIds")
+    int deleteByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+
+    // Compute balances of some students (index lookups per student, no full scans)
+    @Modifying
+    @Query(value = "INSERT INTO student_balance (student_id, fees_billed, total_paid, balance, refreshed_at) " +
+            "SELECT t.id, t.billed, t.paid, t.billed - t.paid, CURRENT_TIMESTAMP FROM (" +
+            "SELECT s.id, " +
+            "COALESCE((SELECT SUM(c.fees) FROM enrollment e JOIN course c ON c.id = e.course_id " +
+            "WHERE e.student_id = s.id AND e.status <> 'DROPPED'), 0) AS billed, " +
+            "COALESCE((SELECT SUM(py.amount) FROM payment py " +
+            "WHERE py.student_id = s.id AND py.status = 'COMPLETED'), 0) AS paid " +
+            "FROM student s WHERE s.id IN (:studentIds)) t", nativeQuery = true)
+    int insertForStudents(@Param("studentIds") Collection<Long> studentIds);
+
+    // Keyset page of students who owe money, largest balance first
+    @Query("SELECT b FROM StudentBalance b JOIN FETCH b.student WHERE b.balance > 0 " +
+            "AND (:afterBalance IS NULL OR b.balance < :afterBalance " +
+            "OR (b.balance = :afterBalance AND b.studentId < :afterId)) " +
+            "ORDER BY b.balance DESC, b.studentId DESC")
+    List<StudentBalance> findDefaultersHighestFirst(@Param("afterBalance") BigDecimal afterBalance,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Keyset page of students who owe money, smallest balance first
+    @Query("SELECT b FROM StudentBalance b JOIN FETCH b.student WHERE b.balance > 0 " +
+            "AND (:afterBalance IS NULL OR b.balance > :afterBalance " +
+            "OR (b.balance = :afterBalance AND b.studentId > :afterId)) " +
+            "ORDER BY b.balance ASC, b.studentId ASC")
+    List<StudentBalance> findDefaultersLowestFirst(@Param("afterBalance") BigDecimal afterBalance,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Number of defaulters and total amount they owe: [count, sum]
+    @Query("SELECT COUNT(b), COALESCE(SUM(b.balance), 0) FROM StudentBalance b WHERE b.balance > 0")
+    List<Object[]> summarizeDefaulters();
+}
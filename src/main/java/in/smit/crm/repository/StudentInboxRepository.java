@@ -0,0 +1,43 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.entity.StudentInbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Repository interface for StudentInbox entity
+ * Unread counters are moved with set-based upserts, one statement per notification sent
+ */
+@Repository
+public interface StudentInboxRepository extends JpaRepository<StudentInbox, Long> {
+
+    // One more unread notification for every student up to an ID (ALL audience)
+    @Modifying
+    @Query(value = "INSERT INTO student_inbox (student_id, unread_count) " +
+            "SELECT s.id, 1 FROM student s WHERE s.id <= :maxStudentId " +
+            "ON DUPLICATE KEY UPDATE unread_count = unread_count + 1", nativeQuery = true)
+    int incrementUpTo(@Param("maxStudentId") Long maxStudentId);
+
+    // One more unread notification for some students (COURSE / STUDENT audience)
+    @Modifying
+    @Query(value = "INSERT INTO student_inbox (student_id, unread_count) " +
+            "SELECT s.id, 1 FROM student s WHERE s.id IN (:studentIds) " +
+            "ON DUPLICATE KEY UPDATE unread_count = unread_count + 1", nativeQuery = true)
+    int incrementForStudents(@Param("studentIds") Collection<Long> studentIds);
+
+    // One less unread notification for some students (read, or deleted before they read it)
+    @Modifying
+    @Query("UPDATE StudentInbox i SET i.unreadCount = i.unreadCount - 1 " +
+            "WHERE i.studentId IN :studentIds AND i.unreadCount > 0")
+    int decrementForStudents(@Param("studentIds") Collection<Long> studentIds);
+
+    // Remove every counter (first step of a full rebuild)
+    @Modifying
+    @Query("DELETE FROM StudentInbox i")
+    int deleteAllCounters();
+}
@@ -1,14 +1,22 @@
 package in.smit.crm.repository;
 
+import in.smit.crm.dto.CurrentStudent;
 import in.smit.crm.entity.Student;
 import in.smit.crm.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Student entity
@@ -29,12 +37,82 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     // Find student by user ID
     Optional<Student> findByUserId(Long userId);
 
+    // Portal profile of the student linked to a user account
+    @Query("SELECT new in.smit.crm.dto.CurrentStudent(s.id, s.firstName, s.lastName, s.email, s.phone, " +
+            "s.dob, s.enrollmentDate) FROM Student s WHERE s.user.id = :userId")
+    Optional<CurrentStudent> findCurrentStudentByUserId(@Param("userId") Long userId);
+
     // Find students by phone number
     Optional<Student> findByPhone(String phone);
 
-    // Search students by first name or last name (case-insensitive)
-    List<Student> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-            String firstName, String lastName);
+    // Highest student ID (notification audience snapshot)
+    @Query("SELECT MAX(s.id) FROM Student s")
+    Long findMaxId();
+
+    // Student IDs up to a given ID, ascending
+    @Query("SELECT s.id FROM Student s WHERE s.id <= :maxId ORDER BY s.id")
+    List<Long> findIdsUpTo(@Param("maxId") Long maxId);
+
+    // Count students up to a given ID
+    long countByIdLessThanEqual(Long maxId);
+
+    // Count students who joined within a date range
+    long countByEnrollmentDateBetween(LocalDate startDate, LocalDate endDate);
+
+    // Normalized email keys out of the given ones that are already taken (bulk onboarding)
+    @Query("SELECT s.emailKey FROM Student s WHERE s.emailKey IN :emailKeys")
+    List<String> findExistingEmailKeys(@Param("emailKeys") Collection<String> emailKeys);
+
+    // Stored normalized email key of a student (was the email changed on this save)
+    @Query("SELECT s.emailKey FROM Student s WHERE s.id = :id")
+    String findEmailKeyById(@Param("id") Long id);
+
+    // Students with a normalized email key (duplicate check at save time)
+    List<Student> findByEmailKey(String emailKey, Limit limit);
+
+    // Students with a normalized phone key (shared phone warning at save time)
+    List<Student> findByPhoneKey(String phoneKey, Limit limit);
+
+    // Next students without contact keys (rows saved before the keys existed)
+    // Columns: student ID, email, phone
+    @Query("SELECT s.id, s.email, s.phone FROM Student s " +
+            "WHERE s.id > :afterId AND (s.emailKey IS NULL OR s.phoneKey IS NULL) ORDER BY s.id")
+    List<Object[]> findMissingContactKeys(@Param("afterId") Long afterId, Limit limit);
+
+    // Contact keys of every student, streamed for duplicate detection
+    // Columns: student ID, email key, phone key
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT s.id, s.emailKey, s.phoneKey FROM Student s ORDER BY s.id")
+    Stream<Object[]> streamContactKeys();
+
+    // Searchable fields of the students with the given emails
+    // Columns: student ID, first name, last name, email, phone
+    @Query("SELECT s.id, s.firstName, s.lastName, s.email, s.phone FROM Student s WHERE s.email IN :emails")
+    List<Object[]> findSearchFieldsByEmails(@Param("emails") Collection<String> emails);
+
+    // Searchable fields of every student, streamed for the search index
+    // Columns: student ID, first name, last name, email, phone
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT s.id, s.firstName, s.lastName, s.email, s.phone FROM Student s ORDER BY s.id")
+    Stream<Object[]> streamSearchFields();
+
+    // Keyset page of students ordered by last name A-Z
+    @Query("SELECT s FROM Student s WHERE :afterName IS NULL OR s.lastName > :afterName " +
+            "OR (s.lastName = :afterName AND s.id > :afterId) ORDER BY s.lastName ASC, s.id ASC")
+    List<Student> findPageByNameAscending(@Param("afterName") String afterName,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Keyset page of students ordered by last name Z-A
+    @Query("SELECT s FROM Student s WHERE :afterName IS NULL OR s.lastName < :afterName " +
+            "OR (s.lastName = :afterName AND s.id < :afterId) ORDER BY s.lastName DESC, s.id DESC")
+    List<Student> findPageByNameDescending(@Param("afterName") String afterName,
+            @Param("afterId") Long afterId,
+            Limit limit);
 
     // Find students enrolled between two dates
     List<Student> findByEnrollmentDateBetween(LocalDate startDate, LocalDate endDate);
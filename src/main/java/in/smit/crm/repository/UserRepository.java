@@ -3,8 +3,11 @@ package in.smit.crm.repository;
 import in.smit.crm.entity.User;
 import in.smit.crm.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,4 +29,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // Find users by role ID
     List<User> findByRoleId(Long roleId);
+
+    // Usernames out of the given ones that are already taken (bulk onboarding)
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // [user ID, username] of the given usernames (bulk onboarding)
+    @Query("SELECT u.id, u.username FROM User u WHERE u.username IN :usernames")
+    List<Object[]> findIdsByUsernames(@Param("usernames") Collection<String> usernames);
 }
\ No newline at end of file
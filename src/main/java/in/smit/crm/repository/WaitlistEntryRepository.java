@@ -0,0 +1,44 @@
+package in.smit.crm.repository;
+
+import in.smit.crm.entity.WaitlistEntry;
+import in.smit.crm.entity.WaitlistStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for WaitlistEntry entity
+ * Handles waitlist queue queries
+ */
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Head of a course's queue, locked until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<WaitlistEntry> findFirstByCourseIdAndStatusOrderByIdAsc(Long courseId, WaitlistStatus status);
+
+    // Check if a student is already queued for a course
+    boolean existsByStudentIdAndCourseIdAndStatus(Long studentId, Long courseId, WaitlistStatus status);
+
+    // Queue with student and course loaded, oldest first (for waitlist.html)
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.student JOIN FETCH w.course " +
+            "WHERE w.status = :status AND (:courseId IS NULL OR w.course.id = :courseId) ORDER BY w.course.id, w.id")
+    List<WaitlistEntry> findQueue(@Param("status") WaitlistStatus status, @Param("courseId") Long courseId);
+
+    // Remove all entries of a student (before the student is deleted)
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+
+    // Remove all entries of a course (before the course is deleted)
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.course.id = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+}
@@ -0,0 +1,176 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.AttendanceSummary;
+import in.smit.crm.entity.AttendanceAlertState;
+import in.smit.crm.entity.AttendanceStatus;
+import in.smit.crm.entity.EnrollmentStatus;
+import in.smit.crm.entity.JobWatermark;
+import in.smit.crm.repository.AttendanceAlertStateRepository;
+import in.smit.crm.repository.AttendanceRepository;
+import in.smit.crm.repository.EnrollmentRepository;
+import in.smit.crm.repository.JobWatermarkRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for low-attendance alerts
+ * Periodically flags ACTIVE enrollments whose attendance dropped below the threshold
+ * or that hit N consecutive ABSENT days, and posts a notification to each of those students.
+ * Only enrollments with attendance rows inserted or edited since the stored watermark (attendance.updated_at)
+ * are re-evaluated, re-reading a trailing window for rows whose transaction committed late; a student
+ * is notified when a condition starts (AttendanceAlertState), not again while it lasts.
+ */
+@Service
+public class AttendanceAlertService {
+
+    static final String JOB_NAME = "attendance-alert";
+
+    // Enrollments evaluated per query
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private JobWatermarkRepository jobWatermarkRepository;
+
+    @Autowired
+    private AttendanceAlertStateRepository alertStateRepository;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Value("${app.attendance.alert.threshold:75}")
+    private double threshold;
+
+    @Value("${app.attendance.alert.consecutive-absences:3}")
+    private int consecutiveAbsences;
+
+    // Changes this far behind the watermark are read again, for transactions that committed after a newer one
+    @Value("${app.attendance.alert.lookback-minutes:10}")
+    private long lookbackMinutes;
+
+    // Don't judge the percentage before this many days are recorded
+    @Value("${app.attendance.alert.min-days:5}")
+    private long minDays;
+
+    // Called on this bean, not through the proxy, so scan() needs the transaction opened here
+    @Scheduled(cron = "${app.attendance.alert.cron:0 */15 * * * *}")
+    @Transactional
+    public void scheduledScan() {
+        int alerts = scan();
+        if (alerts > 0) {
+            System.out.println("⚠️ Attendance alerts raised: " + alerts);
+        }
+    }
+
+    // Evaluate enrollments touched since the last run, returns number of alerts created
+    @Transactional
+    public int scan() {
+        JobWatermark watermark = jobWatermarkRepository.findForUpdate(JOB_NAME)
+                .orElseGet(() -> new JobWatermark(JOB_NAME, 0L, null, null));
+
+        LocalDateTime lastChangedAt = attendanceRepository.findLastChangedAt();
+        if (lastChangedAt == null) {
+            return 0;
+        }
+
+        List<Long> enrollmentIds;
+        if (watermark.getLastChangedAt() == null) {
+            // First run on change times: pick up from the row ID watermark of earlier versions
+            Long maxId = attendanceRepository.findMaxId();
+            enrollmentIds = attendanceRepository.findEnrollmentIdsWithNewRows(watermark.getLastValue(), maxId);
+            watermark.setLastValue(maxId);
+        } else {
+            // Re-evaluating an enrollment is harmless, alerts only fire when a condition starts
+            enrollmentIds = attendanceRepository.findEnrollmentIdsChangedBetween(
+                    watermark.getLastChangedAt().minusMinutes(lookbackMinutes), lastChangedAt);
+        }
+
+        int alerts = 0;
+        for (int from = 0; from < enrollmentIds.size(); from += CHUNK_SIZE) {
+            alerts += evaluate(enrollmentIds.subList(from, Math.min(from + CHUNK_SIZE, enrollmentIds.size())));
+        }
+
+        watermark.setLastChangedAt(lastChangedAt);
+        jobWatermarkRepository.save(watermark);
+        return alerts;
+    }
+
+    private int evaluate(List<Long> enrollmentIds) {
+        Map<Long, AttendanceSummary> summaries = attendanceService.getAttendanceSummaries(enrollmentIds);
+        Map<Long, Integer> absenceStreaks = latestAbsenceStreaks(enrollmentIds);
+        Map<Long, AttendanceAlertState> states = new HashMap<>();
+        for (AttendanceAlertState state : alertStateRepository.findAllById(enrollmentIds)) {
+            states.put(state.getEnrollmentId(), state);
+        }
+
+        int alerts = 0;
+        for (Object[] label : enrollmentRepository.findLabelsByIdsAndStatus(enrollmentIds, EnrollmentStatus.ACTIVE)) {
+            Long enrollmentId = (Long) label[0];
+            String studentName = label[1] + " " + label[2];
+            String courseName = (String) label[3];
+
+            AttendanceSummary summary = summaries.get(enrollmentId);
+            boolean belowThreshold = summary.getTotalDays() >= minDays && summary.getPercentage() < threshold;
+            boolean absenceStreak = absenceStreaks.getOrDefault(enrollmentId, 0) >= consecutiveAbsences;
+            AttendanceAlertState state = states.getOrDefault(enrollmentId,
+                    new AttendanceAlertState(enrollmentId, false, false, null));
+
+            // Only conditions that weren't already true at the last evaluation
+            List<String> reasons = new ArrayList<>();
+            if (belowThreshold && !state.isBelowThreshold()) {
+                reasons.add(String.format("attendance is %.1f%% (threshold %.0f%%)", summary.getPercentage(), threshold));
+            }
+            if (absenceStreak && !state.isAbsenceStreak()) {
+                reasons.add("absent for the last " + consecutiveAbsences + " days in a row");
+            }
+
+            if (!reasons.isEmpty()) {
+                notificationService.createStudentNotification((Long) label[4],
+                        "Low attendance: " + studentName,
+                        studentName + " in " + courseName + ": " + String.join(" and ", reasons) + ".");
+                alerts++;
+            }
+            if (state.isBelowThreshold() != belowThreshold || state.isAbsenceStreak() != absenceStreak) {
+                state.setBelowThreshold(belowThreshold);
+                state.setAbsenceStreak(absenceStreak);
+                alertStateRepository.save(state);
+            }
+        }
+        return alerts;
+    }
+
+    // Number of ABSENT days at the head of each enrollment's newest-first history (capped at the limit)
+    private Map<Long, Integer> latestAbsenceStreaks(List<Long> enrollmentIds) {
+        Map<Long, Integer> streaks = new HashMap<>();
+        Map<Long, Boolean> broken = new HashMap<>();
+        for (Object[] row : attendanceRepository.findLatestStatuses(enrollmentIds, consecutiveAbsences)) {
+            Long enrollmentId = ((Number) row[0]).longValue();
+            if (broken.getOrDefault(enrollmentId, false)) {
+                continue;
+            }
+            if (AttendanceStatus.ABSENT.name().equals(row[1].toString())) {
+                streaks.merge(enrollmentId, 1, Integer::sum);
+            } else {
+                broken.put(enrollmentId, true);
+            }
+        }
+        return streaks;
+    }
+}
@@ -0,0 +1,153 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.AttendanceRow;
+import in.smit.crm.dto.ImportReport;
+import in.smit.crm.entity.AttendanceStatus;
+import in.smit.crm.util.CsvUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Service class for bulk attendance import from CSV
+ * Expected header: email,course,date,status (date as yyyy-MM-dd)
+ * The file is read line by line and written in chunks, each chunk in its own transaction
+ */
+@Service
+public class AttendanceImportService {
+
+    // Valid rows written per transaction
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final List<String> COLUMNS = List.of("email", "course", "date", "status");
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    // Import attendance rows from a CSV stream
+    public ImportReport importCsv(InputStream input) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new RuntimeException("File is empty!");
+            }
+            int[] columns = resolveColumns(CsvUtils.parseLine(stripBom(header)));
+
+            // Built once per import, then every row resolves in memory
+            Map<String, long[]> lookup = enrollmentService.getImportLookup();
+
+            List<AttendanceRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.setRowsRead(report.getRowsRead() + 1);
+
+                AttendanceRow row = parseRow(CsvUtils.parseLine(line), columns, lookup, lineNumber, report);
+                if (row != null) {
+                    chunk.add(row);
+                    if (chunk.size() == CHUNK_SIZE) {
+                        writeChunk(chunk, report);
+                        chunk.clear();
+                    }
+                }
+            }
+            writeChunk(chunk, report);
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - started);
+        return report;
+    }
+
+    private AttendanceRow parseRow(List<String> fields, int[] columns, Map<String, long[]> lookup,
+            long lineNumber, ImportReport report) {
+        // Header columns may be reordered or extra, so the row must reach the rightmost one used
+        int required = Arrays.stream(columns).max().orElse(-1) + 1;
+        if (fields.size() < required) {
+            report.addError(lineNumber, "expected " + required + " columns, found " + fields.size());
+            return null;
+        }
+        String email = fields.get(columns[0]).toLowerCase(Locale.ROOT);
+        String course = fields.get(columns[1]).toLowerCase(Locale.ROOT);
+
+        long[] ids = lookup.get(email + "|" + course);
+        if (ids == null) {
+            report.addError(lineNumber, "no enrollment for " + fields.get(columns[0]) + " in " + fields.get(columns[1]));
+            return null;
+        }
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(fields.get(columns[2]));
+        } catch (DateTimeParseException e) {
+            report.addError(lineNumber, "invalid date '" + fields.get(columns[2]) + "' (use yyyy-MM-dd)");
+            return null;
+        }
+
+        AttendanceStatus status;
+        try {
+            status = AttendanceStatus.valueOf(fields.get(columns[3]).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            report.addError(lineNumber, "invalid status '" + fields.get(columns[3]) + "'");
+            return null;
+        }
+
+        return new AttendanceRow(ids[0], ids[1], date, status);
+    }
+
+    // Batch insert a chunk, rows already in the database or repeated in the chunk count as duplicates
+    private void writeChunk(List<AttendanceRow> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        int inserted = attendanceService.insertAttendanceBatch(chunk).size();
+        report.setInserted(report.getInserted() + inserted);
+        report.setDuplicates(report.getDuplicates() + chunk.size() - inserted);
+    }
+
+    private int[] resolveColumns(List<String> header) {
+        int[] columns = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            columns[i] = indexOfIgnoreCase(header, COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new RuntimeException("Missing column '" + COLUMNS.get(i) + "' in header");
+            }
+        }
+        return columns;
+    }
+
+    private static int indexOfIgnoreCase(List<String> header, String column) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Spreadsheet exports often start with a UTF-8 byte order mark
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+}
@@ -0,0 +1,139 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.AttendanceRow;
+import in.smit.crm.entity.AttendanceDailyRollup;
+import in.smit.crm.entity.AttendanceStatus;
+import in.smit.crm.repository.AttendanceDailyRollupRepository;
+import in.smit.crm.repository.AttendanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class for the per-course daily attendance roll-up
+ * Keeps attendance_daily_rollup in step with attendance writes
+ * Callers run inside their own transaction so both tables commit together
+ */
+@Service
+public class AttendanceRollupService {
+
+    @Autowired
+    private AttendanceDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    // Add delta to a single bucket (+1 on insert, -1 on delete)
+    @Transactional
+    public void recordChange(Long courseId, LocalDate date, AttendanceStatus status, long delta) {
+        rollupRepository.applyDelta(courseId, date, status.name(), delta);
+    }
+
+    // Add rows of a batch insert (one statement per distinct course, date and status)
+    @Transactional
+    public void recordRows(Collection<AttendanceRow> rows) {
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (AttendanceRow row : rows) {
+            counts.merge(List.of(row.getCourseId(), row.getDate(), row.getStatus()), 1L, Long::sum);
+        }
+        counts.forEach((key, count) -> rollupRepository.applyDelta(
+                (Long) key.get(0), (LocalDate) key.get(1), ((AttendanceStatus) key.get(2)).name(), count));
+    }
+
+    // Subtract all attendance of an enrollment (before the enrollment is deleted)
+    @Transactional
+    public void removeEnrollment(Long courseId, Long enrollmentId) {
+        for (Object[] row : attendanceRepository.countByEnrollmentGroupedByDateAndStatus(enrollmentId)) {
+            rollupRepository.applyDelta(courseId, (LocalDate) row[0],
+                    ((AttendanceStatus) row[1]).name(), -((Long) row[2]));
+        }
+    }
+
+    // Subtract all attendance of a student's enrollments (before the student is deleted)
+    @Transactional
+    public void removeStudent(Long studentId) {
+        for (Object[] row : attendanceRepository.countByStudentGroupedByCourseDateAndStatus(studentId)) {
+            rollupRepository.applyDelta((Long) row[0], (LocalDate) row[1],
+                    ((AttendanceStatus) row[2]).name(), -((Long) row[3]));
+        }
+    }
+
+    // Move all attendance of an enrollment to another course's buckets (enrollment edited to a new course)
+    @Transactional
+    public void moveEnrollment(Long enrollmentId, Long fromCourseId, Long toCourseId) {
+        for (Object[] row : attendanceRepository.countByEnrollmentGroupedByDateAndStatus(enrollmentId)) {
+            String status = ((AttendanceStatus) row[1]).name();
+            rollupRepository.applyDelta(fromCourseId, (LocalDate) row[0], status, -((Long) row[2]));
+            rollupRepository.applyDelta(toCourseId, (LocalDate) row[0], status, (Long) row[2]);
+        }
+    }
+
+    // Drop all buckets of a course (before the course is deleted)
+    @Transactional
+    public void removeCourse(Long courseId) {
+        rollupRepository.deleteByCourse(courseId);
+    }
+
+    // Rebuild the whole roll-up from the raw attendance table (backfills, repairs)
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllBuckets();
+        return rollupRepository.rebuildAllBuckets();
+    }
+
+    // Compare buckets with the raw table, rebuild on drift, returns number of mismatched buckets
+    @Scheduled(cron = "${app.attendance.rollup.reconcile-cron:0 0 2 * * *}")
+    @Transactional
+    public int reconcile() {
+        Map<List<Object>, Long> stored = new HashMap<>();
+        for (AttendanceDailyRollup bucket : rollupRepository.findAll()) {
+            stored.put(List.of(bucket.getCourseId(), bucket.getDate(), bucket.getStatus()), bucket.getRecordCount());
+        }
+
+        int mismatches = 0;
+        Set<List<Object>> seen = new HashSet<>();
+        for (Object[] row : attendanceRepository.countGroupedByCourseDateAndStatus()) {
+            List<Object> key = List.of(row[0], row[1], row[2]);
+            seen.add(key);
+            if (!Long.valueOf((Long) row[3]).equals(stored.get(key))) {
+                mismatches++;
+            }
+        }
+        // Buckets left over after deletes must be empty
+        for (Map.Entry<List<Object>, Long> entry : stored.entrySet()) {
+            if (!seen.contains(entry.getKey()) && entry.getValue() != 0) {
+                mismatches++;
+            }
+        }
+
+        if (mismatches > 0) {
+            System.out.println("⚠️ Attendance roll-up drifted in " + mismatches + " buckets, rebuilding");
+            rebuild();
+        }
+        return mismatches;
+    }
+
+    // Get daily buckets of a course (for attendance trend charts)
+    public List<AttendanceDailyRollup> getCourseTrend(Long courseId, LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.findByCourseIdAndDateBetweenOrderByDateAsc(courseId, startDate, endDate);
+    }
+
+    // Get totals per course and status in a date range: [course ID, course name, status, count]
+    public List<Object[]> getCourseTotals(LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.sumByCourseAndStatus(startDate, endDate);
+    }
+
+    // Get daily buckets of all courses in a date range
+    public List<AttendanceDailyRollup> getTrend(LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.findByDateBetweenOrderByDateAsc(startDate, endDate);
+    }
+}
@@ -1,13 +1,32 @@
 package in.smit.crm.service;
 
+import in.smit.crm.dto.AttendanceRow;
+import in.smit.crm.dto.AttendanceSummary;
+import in.smit.crm.dto.BulkResult;
+import in.smit.crm.dto.KeysetCursor;
+import in.smit.crm.dto.KeysetPage;
 import in.smit.crm.entity.Attendance;
 import in.smit.crm.entity.AttendanceStatus;
+import in.smit.crm.entity.EnrollmentStatus;
 import in.smit.crm.repository.AttendanceRepository;
+import in.smit.crm.repository.EnrollmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.sql.Statement;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service class for Attendance entity
@@ -16,39 +35,200 @@ import java.util.List;
 @Service
 public class AttendanceService {
 
+    // Rows sent to the driver per JDBC batch
+    private static final int BATCH_SIZE = 500;
+
+    // IGNORE: a row a concurrent marker committed first (uk_attendance_enrollment_date) is skipped, not an error
+    private static final String INSERT_ATTENDANCE_SQL =
+            "INSERT IGNORE INTO attendance (date, status, enrollment_id) VALUES (?, ?, ?)";
+
     @Autowired
     private AttendanceRepository attendanceRepository;
 
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private AttendanceRollupService attendanceRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     // Get all attendance records (for list.html)
     public List<Attendance> getAllAttendance() {
         return attendanceRepository.findAll();
     }
 
-    // Get attendance by ID (for edit.html)
+    // Get one page of attendance (for list.html), newest or oldest first
+    public KeysetPage<Attendance> getAttendancePage(String cursor, boolean oldestFirst,
+            AttendanceStatus status, LocalDate date, int size) {
+        KeysetCursor<LocalDate> after = KeysetCursor.decode(cursor, LocalDate::parse);
+        LocalDate afterDate = after != null ? after.getValue() : null;
+        Long afterId = after != null ? after.getId() : null;
+        Limit limit = Limit.of(size + 1);
+
+        List<Attendance> rows = oldestFirst
+                ? attendanceRepository.findPageOldestFirst(status, date, afterDate, afterId, limit)
+                : attendanceRepository.findPageNewestFirst(status, date, afterDate, afterId, limit);
+        return KeysetPage.of(rows, size, a -> KeysetCursor.encode(a.getDate(), a.getId()));
+    }
+
+    // Get attendance by ID with enrollment, student and course (for edit.html)
     public Attendance getAttendanceById(Long id) {
-        return attendanceRepository.findById(id)
+        return attendanceRepository.findWithEnrollmentById(id)
                 .orElseThrow(() -> new RuntimeException("Attendance not found with id: " + id));
     }
 
     // Save or update attendance (for add.html and edit.html)
+    @Transactional
     public Attendance saveAttendance(Attendance attendance) {
-        // Check if attendance already marked for this date
-        boolean exists = attendanceRepository.existsByEnrollmentIdAndDate(
-                attendance.getEnrollment().getId(),
-                attendance.getDate());
+        // Take the old bucket out of the roll-up before an update
+        if (attendance.getId() != null) {
+            attendanceRepository.findById(attendance.getId()).ifPresent(old ->
+                    attendanceRollupService.recordChange(courseIdOf(old.getEnrollment().getId()),
+                            old.getDate(), old.getStatus(), -1));
+        }
 
-        if (exists && attendance.getId() == null) {
+        // A second row for the same enrollment and date breaks uk_attendance_enrollment_date
+        Attendance saved;
+        try {
+            saved = attendanceRepository.saveAndFlush(attendance);
+        } catch (DataIntegrityViolationException e) {
+            if (!e.getMostSpecificCause().getMessage().toLowerCase().contains("uk_attendance_enrollment_date")) {
+                throw e;
+            }
             throw new RuntimeException("Attendance already marked for this date!");
         }
+        attendanceRollupService.recordChange(courseIdOf(saved.getEnrollment().getId()),
+                saved.getDate(), saved.getStatus(), 1);
+        return saved;
+    }
 
-        return attendanceRepository.save(attendance);
+    // Mark attendance for a whole course roster in one transaction (for attendance-roster.html)
+    // Enrollments that are not ACTIVE in the course, or already marked for the date, are skipped
+    @Transactional
+    public BulkResult markRosterAttendance(Long courseId, LocalDate date,
+            Map<Long, AttendanceStatus> statuses) {
+        if (courseId == null || date == null) {
+            throw new RuntimeException("Course and date are required!");
+        }
+
+        Set<Long> roster = new HashSet<>(
+                enrollmentRepository.findIdsByCourseIdAndStatus(courseId, EnrollmentStatus.ACTIVE));
+        List<Long> requested = new ArrayList<>();
+        for (Map.Entry<Long, AttendanceStatus> entry : statuses.entrySet()) {
+            if (entry.getValue() != null && roster.contains(entry.getKey())) {
+                requested.add(entry.getKey());
+            }
+        }
+
+        List<AttendanceRow> rows = new ArrayList<>();
+        for (Long enrollmentId : requested) {
+            rows.add(new AttendanceRow(enrollmentId, courseId, date, statuses.get(enrollmentId)));
+        }
+        int inserted = insertAttendanceBatch(rows).size();
+
+        return new BulkResult(inserted, statuses.size() - inserted);
+    }
+
+    // Insert attendance rows with JDBC batches and update the roll-up in the same transaction, returns the rows inserted
+    // Rows already marked, repeated in the list or committed first by a concurrent marker are skipped
+    @Transactional
+    public List<AttendanceRow> insertAttendanceBatch(List<AttendanceRow> rows) {
+        List<AttendanceRow> fresh = withoutMarked(rows);
+        if (fresh.isEmpty()) {
+            return fresh;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_ATTENDANCE_SQL, fresh, BATCH_SIZE, (ps, row) -> {
+            ps.setDate(1, Date.valueOf(row.getDate()));
+            ps.setString(2, row.getStatus().name());
+            ps.setLong(3, row.getEnrollmentId());
+        });
+
+        List<AttendanceRow> inserted = new ArrayList<>(fresh.size());
+        List<AttendanceRow> unknown = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                AttendanceRow row = fresh.get(index++);
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    unknown.add(row);
+                } else if (count > 0) {
+                    inserted.add(row);
+                }
+            }
+        }
+        // Batches the driver rewrote into one multi-row INSERT (rewriteBatchedStatements) report no per-row
+        // counts; read the pairs back: this transaction's snapshot, opened by withoutMarked(), shows the rows
+        // inserted here but not ones a concurrent marker committed after it
+        if (!unknown.isEmpty()) {
+            Set<String> present = markedPairs(unknown);
+            for (AttendanceRow row : unknown) {
+                if (present.contains(row.getEnrollmentId() + "|" + row.getDate())) {
+                    inserted.add(row);
+                }
+            }
+        }
+
+        attendanceRollupService.recordRows(inserted);
+        return inserted;
+    }
+
+    // Drop rows already in the database or repeated in the list
+    private List<AttendanceRow> withoutMarked(List<AttendanceRow> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Set<String> seen = markedPairs(rows);
+        List<AttendanceRow> fresh = new ArrayList<>(rows.size());
+        for (AttendanceRow row : rows) {
+            if (seen.add(row.getEnrollmentId() + "|" + row.getDate())) {
+                fresh.add(row);
+            }
+        }
+        return fresh;
+    }
+
+    // "enrollment ID|date" of rows stored for the enrollments and date range of the given rows
+    private Set<String> markedPairs(List<AttendanceRow> rows) {
+        Set<Long> enrollmentIds = new HashSet<>();
+        LocalDate minDate = LocalDate.MAX;
+        LocalDate maxDate = LocalDate.MIN;
+        for (AttendanceRow row : rows) {
+            enrollmentIds.add(row.getEnrollmentId());
+            minDate = row.getDate().isBefore(minDate) ? row.getDate() : minDate;
+            maxDate = row.getDate().isAfter(maxDate) ? row.getDate() : maxDate;
+        }
+        Set<String> pairs = new HashSet<>();
+        for (Object[] pair : attendanceRepository.findMarkedPairs(enrollmentIds, minDate, maxDate)) {
+            pairs.add(pair[0] + "|" + pair[1]);
+        }
+        return pairs;
+    }
+
+    // Get enrollments (out of the given ones) already marked on a date
+    public List<Long> getMarkedEnrollmentIds(Collection<Long> enrollmentIds, LocalDate date) {
+        if (enrollmentIds.isEmpty()) {
+            return List.of();
+        }
+        return attendanceRepository.findMarkedEnrollmentIds(enrollmentIds, date);
     }
 
     // Delete attendance by ID
+    @Transactional
     public void deleteAttendance(Long id) {
+        attendanceRepository.findById(id).ifPresent(old ->
+                attendanceRollupService.recordChange(courseIdOf(old.getEnrollment().getId()),
+                        old.getDate(), old.getStatus(), -1));
         attendanceRepository.deleteById(id);
     }
 
+    // Find course of an enrollment (roll-up buckets are per course)
+    private Long courseIdOf(Long enrollmentId) {
+        return enrollmentRepository.findCourseIdById(enrollmentId)
+                .orElseThrow(() -> new RuntimeException("Enrollment not found with id: " + enrollmentId));
+    }
+
     // Get attendance by enrollment ID (for student attendance report)
     public List<Attendance> getAttendanceByEnrollmentId(Long enrollmentId) {
         return attendanceRepository.findByEnrollmentId(enrollmentId);
@@ -76,6 +256,37 @@ public class AttendanceService {
         return percentage != null ? percentage : 0.0;
     }
 
+    // Get attendance summaries for many enrollments in one query
+    // Every requested enrollment gets an entry, even without attendance rows
+    public Map<Long, AttendanceSummary> getAttendanceSummaries(Collection<Long> enrollmentIds) {
+        Map<Long, AttendanceSummary> summaries = new HashMap<>();
+        if (enrollmentIds.isEmpty()) {
+            return summaries;
+        }
+        for (AttendanceSummary summary : attendanceRepository.summarizeByEnrollmentIds(enrollmentIds)) {
+            summaries.put(summary.getEnrollmentId(), summary);
+        }
+        for (Long enrollmentId : enrollmentIds) {
+            summaries.computeIfAbsent(enrollmentId, AttendanceSummary::empty);
+        }
+        return summaries;
+    }
+
+    // Get attendance summaries of all enrollments of a student in one query
+    // Enrollments without attendance rows have no entry
+    public Map<Long, AttendanceSummary> getAttendanceSummariesByStudent(Long studentId) {
+        Map<Long, AttendanceSummary> summaries = new HashMap<>();
+        for (AttendanceSummary summary : attendanceRepository.summarizeByStudentId(studentId)) {
+            summaries.put(summary.getEnrollmentId(), summary);
+        }
+        return summaries;
+    }
+
+    // Get attendance summary for a single enrollment (for attendance report)
+    public AttendanceSummary getAttendanceSummary(Long enrollmentId) {
+        return getAttendanceSummaries(List.of(enrollmentId)).get(enrollmentId);
+    }
+
     // Count present days for enrollment
     public long countPresentDays(Long enrollmentId) {
         return attendanceRepository.countByEnrollmentAndStatus(enrollmentId, AttendanceStatus.PRESENT);
@@ -0,0 +1,41 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class for cache metrics
+ * Reads hit/miss counters recorded by the Caffeine caches of CacheConfig
+ */
+@Service
+public class CacheStatsService {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Get counters of every cache (for /admin/cache/stats)
+    public List<CacheStats> getStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache instanceof CaffeineCache caffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                com.github.benmanes.caffeine.cache.stats.CacheStats counters = nativeCache.stats();
+                stats.add(new CacheStats(name, nativeCache.estimatedSize(), counters.hitCount(),
+                        counters.missCount(), counters.hitRate(), counters.evictionCount()));
+            }
+        }
+        return stats;
+    }
+}
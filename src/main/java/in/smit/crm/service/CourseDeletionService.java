@@ -0,0 +1,68 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.CourseDeletionReport;
+import in.smit.crm.dto.JobProgress;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class for background course deletion
+ * Queues CourseService.deleteCourse on the job executor and returns a job handle right away
+ */
+@Service
+public class CourseDeletionService {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    // Copy the course, its enrollments and attendance to the archive tables before deleting
+    @Value("${app.course.delete.archive:true}")
+    private boolean archive;
+
+    // Courses with a deletion queued or running
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    // Queue deletion of a course, returns the job to poll
+    public JobProgress startDeletion(Long courseId) {
+        String courseName = courseService.getCourseById(courseId).getCourseName();
+        if (!inFlight.add(courseId)) {
+            throw new RuntimeException("Course is already being deleted!");
+        }
+
+        JobProgress job = jobRegistry.create("course-delete", "Delete course " + courseName);
+        try {
+            jobExecutor.execute(() -> run(job, courseId));
+        } catch (TaskRejectedException e) {
+            inFlight.remove(courseId);
+            jobRegistry.failed(job, "Too many background jobs, try again later");
+            throw new RuntimeException("Too many background jobs running, try again later!");
+        }
+        return job;
+    }
+
+    private void run(JobProgress job, Long courseId) {
+        jobRegistry.running(job);
+        try {
+            CourseDeletionReport report = courseService.deleteCourse(courseId, archive);
+            jobRegistry.done(job, "Deleted " + report.getCourseName() + " with " + report.getEnrollments()
+                    + " enrollments and " + report.getAttendance() + " attendance records"
+                    + (report.isArchived() ? " (archived)" : ""));
+        } catch (Exception e) {
+            jobRegistry.failed(job, e.getMessage());
+        } finally {
+            inFlight.remove(courseId);
+        }
+    }
+}
@@ -1,12 +1,29 @@
 package in.smit.crm.service;
 
+import in.smit.crm.config.CacheConfig;
+import in.smit.crm.dto.CourseDeletionReport;
 import in.smit.crm.entity.Course;
+import in.smit.crm.event.SeatReleasedEvent;
+import in.smit.crm.repository.AttendanceRepository;
+import in.smit.crm.repository.CourseArchiveRepository;
 import in.smit.crm.repository.CourseRepository;
+import in.smit.crm.repository.EnrollmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Service class for Course entity
@@ -18,7 +35,33 @@ public class CourseService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private StudentBalanceService studentBalanceService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EnrollmentStatService enrollmentStatService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private CourseArchiveRepository courseArchiveRepository;
+
+    @Autowired
+    private AttendanceRollupService attendanceRollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Get all courses (for list.html and dropdown in enrollment form)
+    // Cached: seatsTaken of cached courses may lag, read it from getSeatsTaken()
+    @Cacheable(CacheConfig.COURSES)
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
     }
@@ -30,13 +73,95 @@ public class CourseService {
     }
 
     // Save or update course (for add.html and edit.html)
+    // A fee change re-bills everyone enrolled in the course, a capacity change may free seats
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.COURSES, allEntries = true),
+            @CacheEvict(value = CacheConfig.ACTIVE_COURSES, allEntries = true),
+            @CacheEvict(value = CacheConfig.UPCOMING_COURSES, allEntries = true) })
+    @Transactional
     public Course saveCourse(Course course) {
-        return courseRepository.save(course);
+        boolean existing = course.getId() != null;
+        BigDecimal previousFees = existing
+                ? courseRepository.findFeesById(course.getId()).orElse(null)
+                : null;
+        Integer previousCapacity = existing
+                ? courseRepository.findCapacityById(course.getId()).orElse(null)
+                : null;
+        Course saved = courseRepository.save(course);
+        if (previousFees != null && previousFees.compareTo(saved.getFees()) != 0) {
+            studentBalanceService.refreshCourseStudents(saved.getId());
+        }
+        if (existing && !Objects.equals(previousCapacity, saved.getCapacity())) {
+            eventPublisher.publishEvent(new SeatReleasedEvent(saved.getId()));
+        }
+        return saved;
+    }
+
+    // Delete course by ID with set-based statements (no entity loading), optionally archiving its rows first
+    // Runs in the background from CourseDeletionService; students of the course are re-billed
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.COURSES, allEntries = true),
+            @CacheEvict(value = CacheConfig.ACTIVE_COURSES, allEntries = true),
+            @CacheEvict(value = CacheConfig.UPCOMING_COURSES, allEntries = true) })
+    @Transactional
+    public CourseDeletionReport deleteCourse(Long id, boolean archive) {
+        Course course = getCourseById(id);
+        List<Long> studentIds = enrollmentRepository.findStudentIdsByCourseId(id);
+        if (archive) {
+            courseArchiveRepository.archiveCourse(id);
+            courseArchiveRepository.archiveEnrollments(id);
+            courseArchiveRepository.archiveAttendance(id);
+        }
+
+        enrollmentStatService.removeCourseEnrollments(id);
+        attendanceRollupService.removeCourse(id);
+        waitlistService.removeCourse(id);
+        int attendance = attendanceRepository.deleteByCourseId(id);
+        int enrollments = enrollmentRepository.deleteByCourseId(id);
+        courseRepository.deleteCourseById(id);
+
+        studentBalanceService.refreshStudents(studentIds);
+        return new CourseDeletionReport(course.getCourseName(), enrollments, attendance, archive);
+    }
+
+    // Take a seat in a course, fails when the course is full
+    @Transactional
+    public void claimSeat(Long courseId) {
+        if (courseRepository.claimSeat(courseId) == 0) {
+            throw new RuntimeException("Course is full!");
+        }
     }
 
-    // Delete course by ID
-    public void deleteCourse(Long id) {
-        courseRepository.deleteById(id);
+    // Take seats for a whole cohort, fails when they don't all fit
+    @Transactional
+    public void claimSeats(Long courseId, int count) {
+        if (courseRepository.claimSeats(courseId, count) == 0) {
+            throw new RuntimeException("Not enough seats left in this course for " + count + " students!");
+        }
+    }
+
+    // Give a seat back (enrollment dropped, completed, suspended or deleted)
+    // The waitlist is served once the caller's transaction commits
+    @Transactional
+    public void releaseSeat(Long courseId) {
+        courseRepository.releaseSeat(courseId);
+        eventPublisher.publishEvent(new SeatReleasedEvent(courseId));
+    }
+
+    // Recompute taken seats of some courses from their ACTIVE enrollments
+    @Transactional
+    public void recountSeats(Collection<Long> courseIds) {
+        if (!courseIds.isEmpty()) {
+            courseRepository.recountSeats(courseIds);
+            courseIds.forEach(courseId -> eventPublisher.publishEvent(new SeatReleasedEvent(courseId)));
+        }
+    }
+
+    // Recompute taken seats of every course (startup, nightly repair)
+    @Scheduled(cron = "${app.course.seats.recount-cron:0 45 3 * * *}")
+    @Transactional
+    public int recountAllSeats() {
+        return courseRepository.recountAllSeats();
     }
 
     // Search courses by name (for search functionality)
@@ -44,12 +169,23 @@ public class CourseService {
         return courseRepository.findByCourseNameContainingIgnoreCase(keyword);
     }
 
-    // Get active courses (courses currently running)
+    // Get taken seats of every course: course ID -> seats (live, not cached)
+    public Map<Long, Integer> getSeatsTaken() {
+        Map<Long, Integer> seats = new HashMap<>();
+        for (Object[] row : courseRepository.findAllSeatsTaken()) {
+            seats.put((Long) row[0], (Integer) row[1]);
+        }
+        return seats;
+    }
+
+    // Get active courses (courses currently running), cached per day
+    @Cacheable(value = CacheConfig.ACTIVE_COURSES, key = "T(java.time.LocalDate).now()")
     public List<Course> getActiveCourses() {
         return courseRepository.findActiveCourses(LocalDate.now());
     }
 
-    // Get upcoming courses (courses that haven't started yet)
+    // Get upcoming courses (courses that haven't started yet), cached per day
+    @Cacheable(value = CacheConfig.UPCOMING_COURSES, key = "T(java.time.LocalDate).now()")
     public List<Course> getUpcomingCourses() {
         return courseRepository.findByStartDateAfter(LocalDate.now());
     }
@@ -0,0 +1,136 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.ChartData;
+import in.smit.crm.entity.AttendanceStatus;
+import in.smit.crm.entity.EnrollmentMonthlyStat;
+import in.smit.crm.entity.PaymentAggregate;
+import in.smit.crm.entity.PaymentMethod;
+import in.smit.crm.entity.PaymentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for dashboard charts
+ * Reads only pre-aggregated buckets (monthly enrollment counts, payment counters,
+ * daily attendance roll-up) so each chart costs a bounded number of rows
+ */
+@Service
+public class DashboardChartService {
+
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+
+    @Autowired
+    private EnrollmentStatService enrollmentStatService;
+
+    @Autowired
+    private PaymentAggregateService paymentAggregateService;
+
+    @Autowired
+    private AttendanceRollupService attendanceRollupService;
+
+    // New enrollments per month for the last N months (current month included)
+    public ChartData getEnrollmentsPerMonth(int months) {
+        List<YearMonth> range = lastMonths(months);
+        Map<YearMonth, Long> counts = new HashMap<>();
+        for (EnrollmentMonthlyStat stat : enrollmentStatService.getMonthlyCounts(
+                range.get(0).atDay(1), LocalDate.now())) {
+            counts.put(YearMonth.from(stat.getMonthStart()), stat.getEnrollmentCount());
+        }
+
+        ChartData.Dataset dataset = new ChartData.Dataset();
+        dataset.setLabel("Enrollments");
+        for (YearMonth month : range) {
+            dataset.getData().add(counts.getOrDefault(month, 0L));
+        }
+        return new ChartData(monthLabels(range), List.of(dataset));
+    }
+
+    // Completed revenue per month for the last N months, one dataset per payment method
+    public ChartData getRevenuePerMonth(int months) {
+        List<YearMonth> range = lastMonths(months);
+        Map<PaymentMethod, Map<YearMonth, BigDecimal>> byMethod = new EnumMap<>(PaymentMethod.class);
+        for (PaymentAggregate bucket : paymentAggregateService.getMonthlyBuckets(
+                range.get(0).atDay(1), LocalDate.now())) {
+            if (bucket.getStatus() != PaymentStatus.COMPLETED || bucket.getPaymentCount() == 0) {
+                continue;
+            }
+            byMethod.computeIfAbsent(bucket.getPaymentMethod(), m -> new HashMap<>())
+                    .put(YearMonth.from(bucket.getMonthStart()), bucket.getTotalAmount());
+        }
+
+        List<ChartData.Dataset> datasets = new ArrayList<>();
+        byMethod.forEach((method, amounts) -> {
+            ChartData.Dataset dataset = new ChartData.Dataset();
+            dataset.setLabel(method.name());
+            for (YearMonth month : range) {
+                dataset.getData().add(amounts.getOrDefault(month, BigDecimal.ZERO));
+            }
+            datasets.add(dataset);
+        });
+        return new ChartData(monthLabels(range), datasets);
+    }
+
+    // Attendance rate (present days / recorded days, in %) per course over the last N days
+    public ChartData getAttendanceRateByCourse(int days) {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days - 1L);
+
+        // Keyed by course ID, two batches can share a course name
+        Map<Long, long[]> presentAndTotal = new LinkedHashMap<>();
+        Map<Long, String> courseNames = new HashMap<>();
+        Map<String, Integer> nameUses = new HashMap<>();
+        for (Object[] row : attendanceRollupService.getCourseTotals(startDate, endDate)) {
+            Long courseId = (Long) row[0];
+            long[] counts = presentAndTotal.computeIfAbsent(courseId, id -> {
+                nameUses.merge((String) row[1], 1, Integer::sum);
+                courseNames.put(id, (String) row[1]);
+                return new long[2];
+            });
+            long count = ((Number) row[3]).longValue();
+            if (row[2] == AttendanceStatus.PRESENT) {
+                counts[0] += count;
+            }
+            counts[1] += count;
+        }
+
+        ChartData.Dataset dataset = new ChartData.Dataset();
+        dataset.setLabel("Attendance %");
+        List<String> labels = new ArrayList<>();
+        presentAndTotal.forEach((courseId, counts) -> {
+            String courseName = courseNames.get(courseId);
+            labels.add(nameUses.get(courseName) > 1 ? courseName + " (#" + courseId + ")" : courseName);
+            dataset.getData().add(counts[1] == 0 ? BigDecimal.ZERO
+                    : BigDecimal.valueOf(counts[0] * 100).divide(BigDecimal.valueOf(counts[1]), 1, RoundingMode.HALF_UP));
+        });
+        return new ChartData(labels, List.of(dataset));
+    }
+
+    private List<YearMonth> lastMonths(int months) {
+        YearMonth current = YearMonth.now();
+        List<YearMonth> range = new ArrayList<>();
+        for (int i = months - 1; i >= 0; i--) {
+            range.add(current.minusMonths(i));
+        }
+        return range;
+    }
+
+    private List<String> monthLabels(List<YearMonth> range) {
+        List<String> labels = new ArrayList<>();
+        for (YearMonth month : range) {
+            labels.add(month.format(MONTH_LABEL));
+        }
+        return labels;
+    }
+}
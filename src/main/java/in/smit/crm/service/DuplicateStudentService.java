@@ -0,0 +1,207 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.DuplicateCluster;
+import in.smit.crm.dto.DuplicateReport;
+import in.smit.crm.entity.Student;
+import in.smit.crm.repository.StudentRepository;
+import in.smit.crm.util.ContactKeys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service class for finding students registered more than once
+ * Students sharing a normalized email or phone key are joined into clusters with union-find,
+ * so A ~ B by email and B ~ C by phone end up in one cluster
+ */
+@Service
+public class DuplicateStudentService {
+
+    // Clusters loaded for display
+    private static final int MAX_CLUSTERS = 200;
+
+    // Students keyed per backfill round
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String UPDATE_KEYS_SQL = "UPDATE student SET email_key = ?, phone_key = ? WHERE id = ?";
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Scan every student once and group the ones sharing an email or phone key
+    @Transactional(readOnly = true)
+    public DuplicateReport findDuplicates() {
+        long started = System.currentTimeMillis();
+        long[] scanned = new long[1];
+        List<long[]> clusters;
+        try (Stream<Object[]> rows = studentRepository.streamContactKeys()) {
+            clusters = cluster(rows.peek(row -> scanned[0]++).iterator());
+        }
+
+        List<long[]> shown = clusters.subList(0, Math.min(MAX_CLUSTERS, clusters.size()));
+        List<Long> ids = shown.stream().flatMapToLong(Arrays::stream).boxed().toList();
+        Map<Long, Student> students = studentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+
+        List<DuplicateCluster> result = new ArrayList<>(shown.size());
+        for (long[] cluster : shown) {
+            List<Student> members = new ArrayList<>(cluster.length);
+            for (long id : cluster) {
+                // Deleted since the scan
+                if (students.containsKey(id)) {
+                    members.add(students.get(id));
+                }
+            }
+            if (members.size() > 1) {
+                result.add(new DuplicateCluster(members, sharedKeys(members)));
+            }
+        }
+
+        long duplicateStudents = clusters.stream().mapToLong(cluster -> cluster.length).sum();
+        return new DuplicateReport(scanned[0], clusters.size(), duplicateStudents, result,
+                System.currentTimeMillis() - started);
+    }
+
+    // Fill contact keys of students saved before the key columns existed, returns students updated
+    public int backfillContactKeys() {
+        int updated = 0;
+        long afterId = 0;
+        List<Object[]> rows;
+        while (!(rows = studentRepository.findMissingContactKeys(afterId, Limit.of(BATCH_SIZE))).isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_KEYS_SQL, rows, BATCH_SIZE, (ps, row) -> {
+                ps.setString(1, ContactKeys.emailKey((String) row[1]));
+                ps.setString(2, ContactKeys.phoneKey((String) row[2]));
+                ps.setLong(3, (Long) row[0]);
+            });
+            updated += rows.size();
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        return updated;
+    }
+
+    // Group [student ID, email key, phone key] rows into clusters of 2+ student IDs, in student ID order
+    static List<long[]> cluster(Iterator<Object[]> rows) {
+        UnionFind sets = new UnionFind();
+        Map<String, Integer> emailOwners = new HashMap<>();
+        Map<String, Integer> phoneOwners = new HashMap<>();
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            int slot = sets.add((Long) row[0]);
+            join(sets, emailOwners, (String) row[1], slot);
+            join(sets, phoneOwners, (String) row[2], slot);
+        }
+        return sets.groups();
+    }
+
+    // First student seen with a key owns it, later ones are joined to the owner
+    private static void join(UnionFind sets, Map<String, Integer> owners, String key, int slot) {
+        if (key != null) {
+            Integer owner = owners.putIfAbsent(key, slot);
+            if (owner != null) {
+                sets.union(owner, slot);
+            }
+        }
+    }
+
+    private static List<String> sharedKeys(List<Student> members) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Student student : members) {
+            if (student.getEmailKey() != null) {
+                counts.merge(student.getEmailKey(), 1, Integer::sum);
+            }
+            if (student.getPhoneKey() != null) {
+                counts.merge(student.getPhoneKey(), 1, Integer::sum);
+            }
+        }
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Disjoint sets over slots 0..size-1 (one per student) with path halving and union by size
+     */
+    static final class UnionFind {
+
+        private long[] studentIds = new long[1024];
+
+        private int[] parent = new int[1024];
+
+        private int[] setSize = new int[1024];
+
+        private int size;
+
+        int add(long studentId) {
+            if (size == parent.length) {
+                studentIds = Arrays.copyOf(studentIds, size * 2);
+                parent = Arrays.copyOf(parent, size * 2);
+                setSize = Arrays.copyOf(setSize, size * 2);
+            }
+            studentIds[size] = studentId;
+            parent[size] = size;
+            setSize[size] = 1;
+            return size++;
+        }
+
+        int find(int slot) {
+            while (parent[slot] != slot) {
+                parent[slot] = parent[parent[slot]];
+                slot = parent[slot];
+            }
+            return slot;
+        }
+
+        void union(int a, int b) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return;
+            }
+            if (setSize[rootA] < setSize[rootB]) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            parent[rootB] = rootA;
+            setSize[rootA] += setSize[rootB];
+        }
+
+        // Sets of 2+ slots as student IDs, ordered by their first slot
+        List<long[]> groups() {
+            Map<Integer, long[]> groups = new HashMap<>();
+            int[] filled = new int[size];
+            List<long[]> ordered = new ArrayList<>();
+            for (int slot = 0; slot < size; slot++) {
+                int root = find(slot);
+                if (setSize[root] < 2) {
+                    continue;
+                }
+                long[] group = groups.get(root);
+                if (group == null) {
+                    group = new long[setSize[root]];
+                    groups.put(root, group);
+                    ordered.add(group);
+                }
+                group[filled[root]++] = studentIds[slot];
+            }
+            return ordered;
+        }
+    }
+}
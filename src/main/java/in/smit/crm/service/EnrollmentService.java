@@ -1,12 +1,31 @@
 package in.smit.crm.service;
 
+import in.smit.crm.dto.BulkResult;
+import in.smit.crm.dto.EnrollmentListItem;
+import in.smit.crm.dto.KeysetCursor;
+import in.smit.crm.dto.KeysetPage;
 import in.smit.crm.entity.Enrollment;
 import in.smit.crm.entity.EnrollmentStatus;
 import in.smit.crm.repository.EnrollmentRepository;
+import in.smit.crm.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Service class for Enrollment entity
@@ -15,38 +34,192 @@ import java.util.List;
 @Service
 public class EnrollmentService {
 
+    // Rows sent to the driver per JDBC batch
+    private static final int BATCH_SIZE = 500;
+
+    // Student IDs checked per eligibility query
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String INSERT_ENROLLMENT_SQL =
+            "INSERT INTO enrollment (enrollment_date, status, active_flag, student_id, course_id) VALUES (?, ?, TRUE, ?, ?)";
+
     @Autowired
     private EnrollmentRepository enrollmentRepository;
 
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceRollupService attendanceRollupService;
+
+    @Autowired
+    private StudentBalanceService studentBalanceService;
+
+    @Autowired
+    private EnrollmentStatService enrollmentStatService;
+
+    @Autowired
+    private CourseService courseService;
+
     // Get all enrollments (for list.html)
+    // Student and course are fetched in the same query (dropdown labels use both)
     public List<Enrollment> getAllEnrollments() {
-        return enrollmentRepository.findAll();
+        return enrollmentRepository.findAllWithStudentAndCourse();
+    }
+
+    // Get one page of enrollments (for list.html), newest or oldest first
+    public KeysetPage<EnrollmentListItem> getEnrollmentPage(String cursor, boolean oldestFirst,
+            EnrollmentStatus status, Long courseId, int size) {
+        KeysetCursor<LocalDate> after = KeysetCursor.decode(cursor, LocalDate::parse);
+        LocalDate afterDate = after != null ? after.getValue() : null;
+        Long afterId = after != null ? after.getId() : null;
+        Limit limit = Limit.of(size + 1);
+
+        List<EnrollmentListItem> rows = oldestFirst
+                ? enrollmentRepository.findPageOldestFirst(status, courseId, afterDate, afterId, limit)
+                : enrollmentRepository.findPageNewestFirst(status, courseId, afterDate, afterId, limit);
+        return KeysetPage.of(rows, size, e -> KeysetCursor.encode(e.getEnrollmentDate(), e.getId()));
     }
 
     // Get enrollment by ID (for edit.html and view details)
     public Enrollment getEnrollmentById(Long id) {
-        return enrollmentRepository.findById(id)
+        return enrollmentRepository.findWithStudentAndCourseById(id)
                 .orElseThrow(() -> new RuntimeException("Enrollment not found with id: " + id));
     }
 
     // Save or update enrollment (for add.html and edit.html)
+    // An ACTIVE enrollment holds a seat of its course
+    @Transactional
     public Enrollment saveEnrollment(Enrollment enrollment) {
-        // Check if student is already enrolled in this course
-        boolean exists = enrollmentRepository.existsByStudentIdAndCourseIdAndStatus(
-                enrollment.getStudent().getId(),
-                enrollment.getCourse().getId(),
-                EnrollmentStatus.ACTIVE);
+        Long courseId = enrollment.getCourse().getId();
+        EnrollmentStatus status = enrollment.getStatus() != null ? enrollment.getStatus() : EnrollmentStatus.ACTIVE;
+
+        // Previous state of an edited enrollment: [status, course ID, student ID]
+        Object[] previous = null;
+        if (enrollment.getId() != null) {
+            List<Object[]> rows = enrollmentRepository.findSeatStateById(enrollment.getId());
+            previous = rows.isEmpty() ? null : rows.get(0);
+        }
+        boolean heldSeat = previous != null && previous[0] == EnrollmentStatus.ACTIVE;
+        boolean sameCourse = previous != null && courseId.equals(previous[1]);
 
-        if (exists && enrollment.getId() == null) {
+        // Take the seat first: the conditional update locks the course row, so concurrent
+        // enrollments into the same course queue here
+        if (status == EnrollmentStatus.ACTIVE && !(heldSeat && sameCourse)) {
+            courseService.claimSeat(courseId);
+        }
+        if (heldSeat && !(status == EnrollmentStatus.ACTIVE && sameCourse)) {
+            courseService.releaseSeat((Long) previous[1]);
+        }
+
+        // A second ACTIVE enrollment of the student in this course breaks uk_enrollment_active
+        // (the whole transaction rolls back, seat claim included)
+        Long previousStudentId = previous != null ? (Long) previous[2] : null;
+        Enrollment saved;
+        try {
+            saved = enrollmentRepository.saveAndFlush(enrollment);
+        } catch (DataIntegrityViolationException e) {
+            if (!e.getMostSpecificCause().getMessage().toLowerCase().contains("uk_enrollment_active")) {
+                throw e;
+            }
             throw new RuntimeException("Student is already enrolled in this course!");
         }
 
-        return enrollmentRepository.save(enrollment);
+        // An edit may move the enrollment to another student, refresh both
+        // Only new enrollments count per month (enrollment_date is not updatable)
+        if (previous == null) {
+            enrollmentStatService.recordChange(saved.getEnrollmentDate(), 1);
+            enrollmentStatService.recordCourseChange(courseId, saved.getStatus(), 1);
+        } else if (previous[0] != saved.getStatus() || !sameCourse) {
+            enrollmentStatService.recordCourseChange((Long) previous[1], (EnrollmentStatus) previous[0], -1);
+            enrollmentStatService.recordCourseChange(courseId, saved.getStatus(), 1);
+        }
+        // Attendance buckets are per course, so they follow the enrollment to its new course
+        if (previous != null && !sameCourse) {
+            attendanceRollupService.moveEnrollment(saved.getId(), (Long) previous[1], courseId);
+        }
+        studentBalanceService.refreshStudents(Arrays.asList(previousStudentId, saved.getStudent().getId()));
+        return saved;
     }
 
-    // Delete enrollment by ID
+    // Delete enrollment by ID (attendance is removed by cascade, so the roll-up is adjusted first)
+    @Transactional
     public void deleteEnrollment(Long id) {
+        enrollmentRepository.findCourseIdById(id).ifPresent(courseId ->
+                attendanceRollupService.removeEnrollment(courseId, id));
+        List<Object[]> seatState = enrollmentRepository.findSeatStateById(id);
+        if (!seatState.isEmpty()) {
+            enrollmentStatService.recordCourseChange((Long) seatState.get(0)[1],
+                    (EnrollmentStatus) seatState.get(0)[0], -1);
+            if (seatState.get(0)[0] == EnrollmentStatus.ACTIVE) {
+                courseService.releaseSeat((Long) seatState.get(0)[1]);
+            }
+        }
+        Long studentId = enrollmentRepository.findStudentIdById(id).orElse(null);
+        enrollmentRepository.findEnrollmentDateById(id).ifPresent(enrollmentDate ->
+                enrollmentStatService.recordChange(enrollmentDate, -1));
         enrollmentRepository.deleteById(id);
+        if (studentId != null) {
+            studentBalanceService.refreshStudent(studentId);
+        }
+    }
+
+    // Enroll a cohort of students into a course in one transaction (for enrollment-bulk.html)
+    // Students already ACTIVE in the course, or unknown IDs, are skipped
+    @Transactional
+    public BulkResult bulkEnroll(Long courseId, Collection<Long> studentIds) {
+        courseService.getCourseById(courseId);
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(studentIds));
+        requested.remove(null);
+
+        List<Long> eligible = new ArrayList<>();
+        for (int from = 0; from < requested.size(); from += CHUNK_SIZE) {
+            eligible.addAll(enrollmentRepository.findStudentIdsNotEnrolled(courseId,
+                    requested.subList(from, Math.min(from + CHUNK_SIZE, requested.size())), EnrollmentStatus.ACTIVE));
+        }
+        return insertEnrollmentBatch(courseId, eligible, requested.size());
+    }
+
+    // Enroll every student who joined within a date range (for enrollment-bulk.html)
+    @Transactional
+    public BulkResult bulkEnrollJoinedBetween(Long courseId, LocalDate joinedFrom, LocalDate joinedTo) {
+        courseService.getCourseById(courseId);
+        long matched = studentRepository.countByEnrollmentDateBetween(joinedFrom, joinedTo);
+        List<Long> eligible = enrollmentRepository.findStudentIdsJoinedBetweenNotEnrolled(
+                courseId, joinedFrom, joinedTo, EnrollmentStatus.ACTIVE);
+        return insertEnrollmentBatch(courseId, eligible, (int) matched);
+    }
+
+    // Take the seats, insert ACTIVE enrollments with JDBC batches and update stats and balances
+    private BulkResult insertEnrollmentBatch(Long courseId, List<Long> studentIds, int requested) {
+        if (!studentIds.isEmpty()) {
+            courseService.claimSeats(courseId, studentIds.size());
+            LocalDate today = LocalDate.now();
+            try {
+                jdbcTemplate.batchUpdate(INSERT_ENROLLMENT_SQL, studentIds, BATCH_SIZE, (ps, studentId) -> {
+                    ps.setDate(1, Date.valueOf(today));
+                    ps.setString(2, EnrollmentStatus.ACTIVE.name());
+                    ps.setLong(3, studentId);
+                    ps.setLong(4, courseId);
+                });
+            } catch (DuplicateKeyException e) {
+                // Someone enrolled one of them between the eligibility query and the insert
+                throw new RuntimeException("Some students were enrolled in this course meanwhile, please try again!");
+            }
+            enrollmentStatService.recordChange(today, studentIds.size());
+            enrollmentStatService.recordCourseChange(courseId, EnrollmentStatus.ACTIVE, studentIds.size());
+            studentBalanceService.refreshStudents(studentIds);
+        }
+        return new BulkResult(studentIds.size(), requested - studentIds.size());
+    }
+
+    // Flag ACTIVE enrollments written before the uniqueness flag existed, returns rows flagged
+    @Transactional
+    public int flagLegacyActiveEnrollments() {
+        return enrollmentRepository.flagLegacyActiveEnrollments();
     }
 
     // Get enrollments by student ID (for student profile page)
@@ -59,6 +232,30 @@ public class EnrollmentService {
         return enrollmentRepository.findByCourseId(courseId);
     }
 
+    // Get active roster of a course with students loaded (for attendance-roster.html)
+    public List<Enrollment> getActiveRosterByCourseId(Long courseId) {
+        return enrollmentRepository.findRosterByCourseId(courseId, EnrollmentStatus.ACTIVE);
+    }
+
+    // Build lookup "email|course name" (lower-cased) -> {enrollment ID, course ID} for imports
+    // When a student has several enrollments in a course, the ACTIVE one wins
+    @Transactional(readOnly = true)
+    public Map<String, long[]> getImportLookup() {
+        Map<String, long[]> lookup = new HashMap<>();
+        try (Stream<Object[]> rows = enrollmentRepository.streamImportKeys()) {
+            rows.forEach(row -> {
+                String key = row[0] + "|" + row[1];
+                long[] ids = { (Long) row[2], (Long) row[3] };
+                if (row[4] == EnrollmentStatus.ACTIVE) {
+                    lookup.put(key, ids);
+                } else {
+                    lookup.putIfAbsent(key, ids);
+                }
+            });
+        }
+        return lookup;
+    }
+
     // Get active enrollments by student
     public List<Enrollment> getActiveEnrollmentsByStudent(Long studentId) {
         return enrollmentRepository.findByStudentIdAndStatus(studentId, EnrollmentStatus.ACTIVE);
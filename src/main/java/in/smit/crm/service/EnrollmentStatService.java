@@ -0,0 +1,115 @@
+package in.smit.crm.service;
+
+import in.smit.crm.entity.CourseEnrollmentStat;
+import in.smit.crm.entity.EnrollmentMonthlyStat;
+import in.smit.crm.entity.EnrollmentStatus;
+import in.smit.crm.repository.CourseEnrollmentStatRepository;
+import in.smit.crm.repository.EnrollmentMonthlyStatRepository;
+import in.smit.crm.repository.EnrollmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for enrollment counts
+ * Keeps enrollment_monthly_stat (per month) and course_enrollment_stat (per course and status)
+ * in step with enrollment writes. Callers run inside their own transaction so the tables commit together
+ */
+@Service
+public class EnrollmentStatService {
+
+    @Autowired
+    private EnrollmentMonthlyStatRepository monthlyStatRepository;
+
+    @Autowired
+    private CourseEnrollmentStatRepository courseStatRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    // Add delta to the month of an enrollment date (+1 on insert, -1 on delete)
+    @Transactional
+    public void recordChange(LocalDate enrollmentDate, long delta) {
+        monthlyStatRepository.applyDelta(enrollmentDate.withDayOfMonth(1), delta);
+    }
+
+    // Add delta to a course and status (+1 on insert or status change in, -1 on delete or change out)
+    @Transactional
+    public void recordCourseChange(Long courseId, EnrollmentStatus status, long delta) {
+        courseStatRepository.applyDelta(courseId, status.name(), delta);
+    }
+
+    // Subtract all enrollments of a course (before the course and its enrollments are deleted)
+    @Transactional
+    public void removeCourseEnrollments(Long courseId) {
+        subtract(enrollmentRepository.countByCourseGroupedByMonth(courseId));
+        courseStatRepository.deleteByCourseId(courseId);
+    }
+
+    // Subtract all enrollments of a student (before the student and its enrollments are deleted)
+    @Transactional
+    public void removeStudentEnrollments(Long studentId) {
+        subtract(enrollmentRepository.countByStudentGroupedByMonth(studentId));
+        for (Object[] row : enrollmentRepository.countByStudentGroupedByCourseAndStatus(studentId)) {
+            recordCourseChange((Long) row[0], (EnrollmentStatus) row[1], -((Number) row[2]).longValue());
+        }
+    }
+
+    // Get counts of every course by status in one query (for courses.html)
+    public Map<Long, Map<EnrollmentStatus, Long>> getCourseCounts() {
+        Map<Long, Map<EnrollmentStatus, Long>> counts = new HashMap<>();
+        for (CourseEnrollmentStat stat : courseStatRepository.findAll()) {
+            counts.computeIfAbsent(stat.getCourseId(), id -> new EnumMap<>(EnrollmentStatus.class))
+                    .put(stat.getStatus(), stat.getEnrollmentCount());
+        }
+        return counts;
+    }
+
+    // Get months in a range (for enrollment charts)
+    public List<EnrollmentMonthlyStat> getMonthlyCounts(LocalDate startDate, LocalDate endDate) {
+        return monthlyStatRepository.findByMonthStartBetweenOrderByMonthStartAsc(
+                startDate.withDayOfMonth(1), endDate.withDayOfMonth(1));
+    }
+
+    // Rebuild the monthly counts from the raw enrollment table (backfills, nightly repair)
+    @Scheduled(cron = "${app.enrollment.stat.rebuild-cron:0 15 3 * * *}")
+    @Transactional
+    public int rebuild() {
+        monthlyStatRepository.deleteAllMonths();
+        List<Object[]> rows = enrollmentRepository.countGroupedByMonth();
+        for (Object[] row : rows) {
+            monthlyStatRepository.applyDelta(monthStart(row), ((Number) row[2]).longValue());
+        }
+        return rows.size();
+    }
+
+    // Rebuild the per-course counts from the raw enrollment table (backfills, nightly repair)
+    @Scheduled(cron = "${app.enrollment.stat.rebuild-cron:0 15 3 * * *}")
+    @Transactional
+    public int rebuildCourseCounts() {
+        courseStatRepository.deleteAllCounts();
+        List<Object[]> rows = enrollmentRepository.countGroupedByCourseAndStatus();
+        for (Object[] row : rows) {
+            recordCourseChange((Long) row[0], (EnrollmentStatus) row[1], ((Number) row[2]).longValue());
+        }
+        return rows.size();
+    }
+
+    private void subtract(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            monthlyStatRepository.applyDelta(monthStart(row), -((Number) row[2]).longValue());
+        }
+    }
+
+    // First day of the month of a grouped [year, month, ...] row
+    private LocalDate monthStart(Object[] row) {
+        return LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1);
+    }
+}
@@ -0,0 +1,85 @@
+package in.smit.crm.service;
+
+import in.smit.crm.repository.AttendanceRepository;
+import in.smit.crm.repository.EnrollmentRepository;
+import in.smit.crm.repository.PaymentRepository;
+import in.smit.crm.util.CsvUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Service class for CSV exports
+ * Rows are streamed from a database cursor straight to the writer,
+ * so memory use does not depend on the size of the date range
+ */
+@Service
+public class ExportService {
+
+    // Flush to the client every N rows
+    private static final int FLUSH_EVERY = 1000;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    // Export attendance between dates, returns number of rows written
+    @Transactional(readOnly = true)
+    public long exportAttendance(LocalDate startDate, LocalDate endDate, Writer writer) {
+        try (Stream<Object[]> rows = attendanceRepository.streamForExport(startDate, endDate)) {
+            return writeCsv(writer, "id,date,status,first_name,last_name,email,course", rows);
+        }
+    }
+
+    // Export payments between dates, returns number of rows written
+    @Transactional(readOnly = true)
+    public long exportPayments(LocalDate startDate, LocalDate endDate, Writer writer) {
+        try (Stream<Object[]> rows = paymentRepository.streamForExport(startDate, endDate)) {
+            return writeCsv(writer, "id,payment_date,amount,method,status,first_name,last_name,email", rows);
+        }
+    }
+
+    // Export enrollments between dates, returns number of rows written
+    @Transactional(readOnly = true)
+    public long exportEnrollments(LocalDate startDate, LocalDate endDate, Writer writer) {
+        try (Stream<Object[]> rows = enrollmentRepository.streamForExport(startDate, endDate)) {
+            return writeCsv(writer, "id,enrollment_date,status,first_name,last_name,email,course", rows);
+        }
+    }
+
+    private long writeCsv(Writer writer, String header, Stream<Object[]> rows) {
+        try {
+            writer.write(header);
+            writer.write('\n');
+            long count = 0;
+            for (var iterator = rows.iterator(); iterator.hasNext();) {
+                Object[] row = iterator.next();
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(CsvUtils.escape(row[i]));
+                }
+                writer.write('\n');
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.JobProgress;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of background jobs
+ * Hands out job IDs that requests can poll; keeps the most recent jobs only (lost on restart)
+ */
+@Service
+public class JobRegistry {
+
+    // Finished jobs kept for polling
+    private static final int MAX_JOBS = 100;
+
+    private final Map<String, JobProgress> jobs = new ConcurrentHashMap<>();
+
+    // Register a new QUEUED job
+    public JobProgress create(String type, String description) {
+        pruneFinished();
+        JobProgress job = new JobProgress(UUID.randomUUID().toString(), type, description);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    // Get a job by ID, null when unknown or pruned
+    public JobProgress get(String id) {
+        return jobs.get(id);
+    }
+
+    // Get all known jobs, newest first
+    public List<JobProgress> getRecent() {
+        List<JobProgress> recent = new ArrayList<>(jobs.values());
+        recent.sort(Comparator.comparing(JobProgress::getCreatedAt).reversed());
+        return recent;
+    }
+
+    // Get the known jobs of one type, newest first
+    public List<JobProgress> getRecent(String type) {
+        List<JobProgress> recent = getRecent();
+        recent.removeIf(job -> !job.getType().equals(type));
+        return recent;
+    }
+
+    public void running(JobProgress job) {
+        job.setState(JobProgress.State.RUNNING);
+    }
+
+    public void progress(JobProgress job, long processed, long total) {
+        job.setProcessed(processed);
+        job.setTotal(total);
+    }
+
+    // Record a failed row, e.g. rowError(job, "Line 5", "invalid date")
+    public void rowError(JobProgress job, String row, String message) {
+        job.setErrorCount(job.getErrorCount() + 1);
+        if (job.getErrors().size() < JobProgress.MAX_ERRORS) {
+            job.getErrors().add(row + ": " + message);
+        }
+    }
+
+    public void done(JobProgress job, String message) {
+        finish(job, JobProgress.State.DONE, message);
+    }
+
+    public void failed(JobProgress job, String message) {
+        finish(job, JobProgress.State.FAILED, message);
+    }
+
+    private void finish(JobProgress job, JobProgress.State state, String message) {
+        job.setMessage(message);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setState(state);
+    }
+
+    // Drop the oldest finished jobs beyond MAX_JOBS
+    private void pruneFinished() {
+        List<JobProgress> finished = new ArrayList<>();
+        for (JobProgress job : jobs.values()) {
+            if (job.getFinishedAt() != null) {
+                finished.add(job);
+            }
+        }
+        if (finished.size() >= MAX_JOBS) {
+            finished.sort(Comparator.comparing(JobProgress::getFinishedAt));
+            finished.subList(0, finished.size() - MAX_JOBS + 1).forEach(job -> jobs.remove(job.getId()));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.LookupOption;
+import in.smit.crm.entity.Course;
+import in.smit.crm.entity.EnrollmentStatus;
+import in.smit.crm.repository.EnrollmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class for typeahead suggestions in admin forms
+ * Answers from the student search index and the cached course catalog,
+ * so a keystroke never loads a whole table
+ */
+@Service
+public class LookupService {
+
+    // Matching students fetched per wanted enrollment on the first try
+    private static final int CANDIDATE_FACTOR = 4;
+
+    @Autowired
+    private StudentSearchIndex studentSearchIndex;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    // Students matching name, email or phone, best first (for student pickers)
+    public List<LookupOption> findStudents(String query, int limit) {
+        return studentSearchIndex.lookup(query, limit);
+    }
+
+    // Courses whose name starts with the query, then those containing it (for course pickers)
+    public List<LookupOption> findCourses(String query, int limit) {
+        String needle = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (needle.isEmpty()) {
+            return List.of();
+        }
+
+        List<Course> matches = new ArrayList<>();
+        for (Course course : courseService.getAllCourses()) {
+            if (course.getCourseName() != null && course.getCourseName().toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(course);
+            }
+        }
+        matches.sort(Comparator.comparing((Course c) -> !c.getCourseName().toLowerCase(Locale.ROOT).startsWith(needle))
+                .thenComparing(Course::getCourseName, String.CASE_INSENSITIVE_ORDER));
+
+        List<LookupOption> options = new ArrayList<>();
+        for (Course course : matches.subList(0, Math.min(limit, matches.size()))) {
+            options.add(new LookupOption(course.getId(), course.getCourseName() + " (₹" + course.getFees() + ")"));
+        }
+        return options;
+    }
+
+    // ACTIVE enrollments of the best matching students, optionally in one course (for attendance forms)
+    // Top matches may have no ACTIVE enrollment (alumni, other courses), so the candidate window
+    // doubles until it yields a full page or runs out of matching students
+    public List<LookupOption> findEnrollments(String query, Long courseId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<Object[]> rows = new ArrayList<>();
+        Set<Long> checked = new HashSet<>();
+        List<Long> studentIds;
+        int window = limit * CANDIDATE_FACTOR;
+        while (true) {
+            studentIds = studentSearchIndex.search(query, window);
+            List<Long> unchecked = studentIds.stream().filter(checked::add).toList();
+            if (!unchecked.isEmpty()) {
+                rows.addAll(enrollmentRepository.findLabelsByStudentIds(unchecked, EnrollmentStatus.ACTIVE, courseId));
+            }
+            if (rows.size() >= limit || studentIds.size() < window) {
+                break;
+            }
+            window *= 2;
+        }
+
+        // Keep the index's student order
+        Map<Long, Integer> studentRank = new HashMap<>();
+        for (int i = 0; i < studentIds.size(); i++) {
+            studentRank.put(studentIds.get(i), i);
+        }
+        rows.sort(Comparator.comparing((Object[] row) -> studentRank.get((Long) row[1]))
+                .thenComparing(row -> (String) row[4], String.CASE_INSENSITIVE_ORDER));
+
+        List<LookupOption> options = new ArrayList<>();
+        for (Object[] row : rows.subList(0, Math.min(limit, rows.size()))) {
+            options.add(new LookupOption((Long) row[0], row[2] + " " + row[3] + " - " + row[4]));
+        }
+        return options;
+    }
+}
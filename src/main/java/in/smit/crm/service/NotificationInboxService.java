@@ -0,0 +1,301 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.DeliveryStats;
+import in.smit.crm.dto.InboxItem;
+import in.smit.crm.entity.EnrollmentStatus;
+import in.smit.crm.entity.Notification;
+import in.smit.crm.entity.NotificationAudience;
+import in.smit.crm.entity.NotificationDelivery;
+import in.smit.crm.entity.StudentInbox;
+import in.smit.crm.repository.EnrollmentRepository;
+import in.smit.crm.repository.NotificationDeliveryRepository;
+import in.smit.crm.repository.NotificationRepository;
+import in.smit.crm.repository.StudentInboxRepository;
+import in.smit.crm.repository.StudentRepository;
+import in.smit.crm.util.CompactIdSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service class for per-student notification delivery and read state
+ * Recipients and readers of a notification are CompactIdSet bitmaps on one NotificationDelivery row;
+ * each student's unread count is a StudentInbox counter moved on send, read and delete
+ */
+@Service
+public class NotificationInboxService {
+
+    // Newest notifications listed on the student portal
+    private static final int INBOX_LIMIT = 100;
+
+    // Student IDs per IN list / JDBC batch
+    private static final int BATCH_SIZE = 1000;
+
+    // Lower bound for "any time", LocalDateTime.MIN doesn't fit a DATETIME column
+    private static final LocalDateTime ANY_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String INSERT_COUNTER_SQL = "INSERT INTO student_inbox (student_id, unread_count) VALUES (?, ?)";
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private StudentInboxRepository inboxRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Resolve the recipients of a just-saved notification and count it as unread for each of them
+    // Runs in the sender's transaction; ALL needs notification.maxStudentId set before the insert
+    @Transactional
+    public void deliver(Notification notification) {
+        NotificationDelivery delivery = new NotificationDelivery(notification.getId(), null, null, 0, 0);
+        if (notification.getAudience() == NotificationAudience.ALL) {
+            inboxRepository.incrementUpTo(notification.getMaxStudentId());
+            delivery.setRecipientCount((int) studentRepository.countByIdLessThanEqual(notification.getMaxStudentId()));
+        } else {
+            List<Long> studentIds = notification.getAudience() == NotificationAudience.COURSE
+                    ? enrollmentRepository.findStudentIdsByCourseIdAndStatus(notification.getTargetId(),
+                            EnrollmentStatus.ACTIVE)
+                    : List.of(notification.getTargetId());
+            CompactIdSet recipients = new CompactIdSet();
+            studentIds.forEach(recipients::add);
+            forEachBatch(studentIds, inboxRepository::incrementForStudents);
+            delivery.setRecipients(recipients.toBytes());
+            delivery.setRecipientCount(recipients.size());
+        }
+        deliveryRepository.save(delivery);
+    }
+
+    // Newest notifications addressed to a student since a time (null for any time), with read flags
+    @Transactional(readOnly = true)
+    public List<InboxItem> getInbox(Long studentId, LocalDateTime since) {
+        List<Long> courseIds = enrollmentRepository.findCourseIdsByStudentId(studentId);
+        List<Notification> candidates = notificationRepository.findForStudent(studentId,
+                courseIds.isEmpty() ? List.of(-1L) : courseIds,
+                since == null ? ANY_TIME : since,
+                Limit.of(INBOX_LIMIT));
+        Map<Long, NotificationDelivery> deliveries = deliveryRepository
+                .findAllById(candidates.stream().map(Notification::getId).toList()).stream()
+                .collect(Collectors.toMap(NotificationDelivery::getNotificationId, Function.identity()));
+
+        List<InboxItem> inbox = new ArrayList<>(candidates.size());
+        for (Notification notification : candidates) {
+            NotificationDelivery delivery = deliveries.get(notification.getId());
+            if (delivery == null) {
+                continue;
+            }
+            // Enrolled in the course after it was sent
+            if (notification.getAudience() == NotificationAudience.COURSE
+                    && !CompactIdSet.contains(delivery.getRecipients(), studentId)) {
+                continue;
+            }
+            inbox.add(new InboxItem(notification, CompactIdSet.contains(delivery.getReaders(), studentId)));
+        }
+        return inbox;
+    }
+
+    // Recipient and read counts of some notifications by notification ID
+    public Map<Long, DeliveryStats> getDeliveryStats(List<Long> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return Map.of();
+        }
+        return deliveryRepository.findStatsByNotificationIds(notificationIds).stream()
+                .collect(Collectors.toMap(DeliveryStats::getNotificationId, Function.identity()));
+    }
+
+    // Unread badge of a student, one primary key lookup
+    public int getUnreadCount(Long studentId) {
+        return inboxRepository.findById(studentId).map(StudentInbox::getUnreadCount).orElse(0);
+    }
+
+    // Mark one notification read by a student, returns false when it was already read
+    @Transactional
+    public boolean markRead(Long studentId, Long notificationId) {
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
+        NotificationDelivery delivery = deliveryRepository.findForUpdate(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
+        if (!isRecipient(notification, delivery, studentId)) {
+            throw new RuntimeException("Notification not found with id: " + notificationId);
+        }
+
+        CompactIdSet readers = CompactIdSet.fromBytes(delivery.getReaders());
+        if (!readers.add(studentId)) {
+            return false;
+        }
+        delivery.setReaders(readers.toBytes());
+        delivery.setReadCount(readers.size());
+        inboxRepository.decrementForStudents(List.of(studentId));
+        return true;
+    }
+
+    // Mark everything addressed to a student read, returns notifications marked
+    // Walks all of them by ID rather than the listed inbox page, so unread ones past INBOX_LIMIT
+    // can't keep the badge above zero; oldest first is the same lock order as any other caller.
+    // Read state is checked on plain columns, so markRead's locking read is the first to load each delivery
+    @Transactional
+    public int markAllRead(Long studentId) {
+        List<Long> courseIds = enrollmentRepository.findCourseIdsByStudentId(studentId);
+        int marked = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<Long> notificationIds = notificationRepository.findIdsForStudentAfterId(studentId,
+                    courseIds.isEmpty() ? List.of(-1L) : courseIds, afterId, Limit.of(BATCH_SIZE));
+            if (notificationIds.isEmpty()) {
+                return marked;
+            }
+            for (Object[] row : deliveryRepository.findReadStateByNotificationIds(notificationIds)) {
+                byte[] recipients = (byte[]) row[1];
+                // No recipient bitmap means a broadcast, the query already matched it to this student
+                boolean addressed = recipients == null || CompactIdSet.contains(recipients, studentId);
+                if (addressed && !CompactIdSet.contains((byte[]) row[2], studentId)
+                        && markRead(studentId, (Long) row[0])) {
+                    marked++;
+                }
+            }
+            afterId = notificationIds.get(notificationIds.size() - 1);
+        }
+    }
+
+    // Take a notification out of the unread counts of recipients that haven't read it, then drop its delivery
+    @Transactional
+    public void withdraw(Notification notification) {
+        NotificationDelivery delivery = deliveryRepository.findForUpdate(notification.getId()).orElse(null);
+        if (delivery == null) {
+            return;
+        }
+        List<Long> unread = new ArrayList<>();
+        if (notification.getAudience() == NotificationAudience.ALL) {
+            for (Long studentId : studentRepository.findIdsUpTo(notification.getMaxStudentId())) {
+                if (!CompactIdSet.contains(delivery.getReaders(), studentId)) {
+                    unread.add(studentId);
+                }
+            }
+        } else {
+            CompactIdSet readers = CompactIdSet.fromBytes(delivery.getReaders());
+            CompactIdSet.fromBytes(delivery.getRecipients()).forEach(studentId -> {
+                if (!readers.contains(studentId)) {
+                    unread.add(studentId);
+                }
+            });
+        }
+        forEachBatch(unread, inboxRepository::decrementForStudents);
+        deliveryRepository.delete(delivery);
+    }
+
+    // Give notifications sent before audiences existed a delivery, read by every current student
+    // so nobody gets a pile of old news as unread; returns notifications migrated
+    @Transactional
+    public int backfillLegacyNotifications() {
+        List<Long> legacyIds = notificationRepository.findLegacyIds();
+        if (legacyIds.isEmpty()) {
+            return 0;
+        }
+        Long maxStudentId = studentRepository.findMaxId();
+        maxStudentId = maxStudentId == null ? 0L : maxStudentId;
+        CompactIdSet everyone = new CompactIdSet();
+        studentRepository.findIdsUpTo(maxStudentId).forEach(everyone::add);
+        byte[] readers = everyone.toBytes();
+
+        notificationRepository.backfillLegacyAudience(maxStudentId);
+        for (Long notificationId : legacyIds) {
+            deliveryRepository.save(new NotificationDelivery(notificationId, null, readers,
+                    everyone.size(), everyone.size()));
+        }
+        return legacyIds.size();
+    }
+
+    // Recompute every unread counter from the delivery bitmaps (startup, nightly repair), returns students with unread
+    // ALL notifications add 1 to a prefix of the sorted student IDs (difference array), so the cost is
+    // students + recipients + readers rather than students x notifications
+    @Scheduled(cron = "${app.notification.unread.rebuild-cron:0 30 4 * * *}")
+    @Transactional
+    public int rebuildUnreadCounts() {
+        long[] studentIds = studentRepository.findIdsUpTo(Long.MAX_VALUE).stream().mapToLong(Long::longValue).toArray();
+        int[] unread = new int[studentIds.length + 1];
+
+        try (Stream<Object[]> rows = deliveryRepository.streamReadState()) {
+            rows.forEach(row -> {
+                byte[] readers = (byte[]) row[3];
+                if (row[0] == NotificationAudience.ALL) {
+                    long maxStudentId = (Long) row[1];
+                    int end = upperBound(studentIds, maxStudentId);
+                    unread[0]++;
+                    unread[end]--;
+                    CompactIdSet.fromBytes(readers).forEach(studentId -> {
+                        int index = Arrays.binarySearch(studentIds, studentId);
+                        if (index >= 0 && studentId <= maxStudentId) {
+                            unread[index]--;
+                            unread[index + 1]++;
+                        }
+                    });
+                } else {
+                    CompactIdSet.fromBytes((byte[]) row[2]).forEach(studentId -> {
+                        int index = Arrays.binarySearch(studentIds, studentId);
+                        if (index >= 0 && !CompactIdSet.contains(readers, studentId)) {
+                            unread[index]++;
+                            unread[index + 1]--;
+                        }
+                    });
+                }
+            });
+        }
+
+        List<long[]> counters = new ArrayList<>();
+        int running = 0;
+        for (int i = 0; i < studentIds.length; i++) {
+            running += unread[i];
+            if (running > 0) {
+                counters.add(new long[] { studentIds[i], running });
+            }
+        }
+        inboxRepository.deleteAllCounters();
+        jdbcTemplate.batchUpdate(INSERT_COUNTER_SQL, counters, BATCH_SIZE, (ps, counter) -> {
+            ps.setLong(1, counter[0]);
+            ps.setInt(2, (int) counter[1]);
+        });
+        return counters.size();
+    }
+
+    private boolean isRecipient(Notification notification, NotificationDelivery delivery, Long studentId) {
+        if (notification.getAudience() == NotificationAudience.ALL) {
+            return studentId <= notification.getMaxStudentId() && studentRepository.existsById(studentId);
+        }
+        return CompactIdSet.contains(delivery.getRecipients(), studentId);
+    }
+
+    // Index of the first student ID above maxStudentId
+    private static int upperBound(long[] studentIds, long maxStudentId) {
+        int index = Arrays.binarySearch(studentIds, maxStudentId);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static void forEachBatch(List<Long> studentIds, Consumer<List<Long>> action) {
+        for (int from = 0; from < studentIds.size(); from += BATCH_SIZE) {
+            action.accept(studentIds.subList(from, Math.min(from + BATCH_SIZE, studentIds.size())));
+        }
+    }
+}
@@ -1,16 +1,25 @@
 package in.smit.crm.service;
 
+import in.smit.crm.dto.DeliveryStats;
+import in.smit.crm.entity.Course;
 import in.smit.crm.entity.Notification;
+import in.smit.crm.entity.NotificationAudience;
+import in.smit.crm.entity.Student;
+import in.smit.crm.repository.CourseRepository;
 import in.smit.crm.repository.NotificationRepository;
+import in.smit.crm.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service class for Notification entity
  * Handles notification management logic
+ * New notifications go through sendNotification(), which targets them and updates the students' inboxes
  */
 @Service
 public class NotificationService {
@@ -18,6 +27,15 @@ public class NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private NotificationInboxService notificationInboxService;
+
     // Get all notifications (for list.html)
     public List<Notification> getAllNotifications() {
         return notificationRepository.findAll();
@@ -29,13 +47,50 @@ public class NotificationService {
                 .orElseThrow(() -> new RuntimeException("Notification not found with id: " + id));
     }
 
-    // Save or update notification (for add.html and edit.html)
+    // Update title and message of a sent notification (for edit.html), audience is fixed once sent
     public Notification saveNotification(Notification notification) {
         return notificationRepository.save(notification);
     }
 
-    // Delete notification by ID
+    // Send a new notification to its audience (for add.html)
+    // targetId is the course ID for COURSE, the student ID for STUDENT and ignored for ALL
+    @Transactional
+    public Notification sendNotification(Notification notification, Long targetId) {
+        NotificationAudience audience = notification.getAudience() == null
+                ? NotificationAudience.ALL
+                : notification.getAudience();
+        notification.setAudience(audience);
+
+        switch (audience) {
+            case COURSE -> {
+                Course course = courseRepository.findById(targetId == null ? -1L : targetId)
+                        .orElseThrow(() -> new RuntimeException("Please select a course!"));
+                notification.setTargetId(course.getId());
+                notification.setAudienceLabel("Course: " + course.getCourseName());
+            }
+            case STUDENT -> {
+                Student student = studentRepository.findById(targetId == null ? -1L : targetId)
+                        .orElseThrow(() -> new RuntimeException("Please select a student!"));
+                notification.setTargetId(student.getId());
+                notification.setAudienceLabel("Student: " + student.getFirstName() + " " + student.getLastName());
+            }
+            default -> {
+                Long maxStudentId = studentRepository.findMaxId();
+                notification.setTargetId(null);
+                notification.setAudienceLabel("All students");
+                notification.setMaxStudentId(maxStudentId == null ? 0L : maxStudentId);
+            }
+        }
+
+        Notification saved = notificationRepository.save(notification);
+        notificationInboxService.deliver(saved);
+        return saved;
+    }
+
+    // Delete notification by ID, taking it out of the unread counts first
+    @Transactional
     public void deleteNotification(Long id) {
+        notificationRepository.findById(id).ifPresent(notificationInboxService::withdraw);
         notificationRepository.deleteById(id);
     }
 
@@ -44,6 +99,11 @@ public class NotificationService {
         return notificationRepository.findAllByOrderByCreatedDateDesc();
     }
 
+    // Recipient and read counts of some notifications, by notification ID (for list.html)
+    public Map<Long, DeliveryStats> getDeliveryStats(List<Notification> notifications) {
+        return notificationInboxService.getDeliveryStats(notifications.stream().map(Notification::getId).toList());
+    }
+
     // Get recent notifications (last 7 days)
     public List<Notification> getRecentNotifications() {
         LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
@@ -61,10 +121,22 @@ public class NotificationService {
     }
 
     // Create and broadcast notification
+    @Transactional
     public Notification createNotification(String title, String message) {
         Notification notification = new Notification();
         notification.setTitle(title);
         notification.setMessage(message);
-        return notificationRepository.save(notification);
+        notification.setAudience(NotificationAudience.ALL);
+        return sendNotification(notification, null);
+    }
+
+    // Create notification for one student
+    @Transactional
+    public Notification createStudentNotification(Long studentId, String title, String message) {
+        Notification notification = new Notification();
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setAudience(NotificationAudience.STUDENT);
+        return sendNotification(notification, studentId);
     }
 }
\ No newline at end of file
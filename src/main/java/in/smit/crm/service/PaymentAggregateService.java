@@ -0,0 +1,116 @@
+package in.smit.crm.service;
+
+import in.smit.crm.entity.Payment;
+import in.smit.crm.entity.PaymentAggregate;
+import in.smit.crm.entity.PaymentMethod;
+import in.smit.crm.entity.PaymentStatus;
+import in.smit.crm.repository.PaymentAggregateRepository;
+import in.smit.crm.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class for the payment counters
+ * Keeps payment_aggregate in step with payment writes so dashboard totals are cheap reads
+ * Callers run inside their own transaction so both tables commit together
+ */
+@Service
+public class PaymentAggregateService {
+
+    @Autowired
+    private PaymentAggregateRepository aggregateRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    // Add (sign = 1) or subtract (sign = -1) one payment from its bucket
+    @Transactional
+    public void recordChange(PaymentStatus status, PaymentMethod method, LocalDate paymentDate,
+            BigDecimal amount, int sign) {
+        aggregateRepository.applyDelta(status.name(), method.name(), paymentDate.withDayOfMonth(1),
+                sign < 0 ? amount.negate() : amount, sign);
+    }
+
+    // Subtract all payments of a student (before the student and its payments are deleted)
+    @Transactional
+    public void removeStudentPayments(Long studentId) {
+        for (Payment payment : paymentRepository.findByStudentId(studentId)) {
+            recordChange(payment.getStatus(), payment.getPaymentMethod(), payment.getPaymentDate(),
+                    payment.getAmount(), -1);
+        }
+    }
+
+    // Total amount of a status (for dashboard cards)
+    public BigDecimal getTotalByStatus(PaymentStatus status) {
+        return aggregateRepository.sumAmountByStatus(status);
+    }
+
+    // Get monthly buckets in a range (for revenue charts)
+    public List<PaymentAggregate> getMonthlyBuckets(LocalDate startDate, LocalDate endDate) {
+        return aggregateRepository.findByMonthStartBetweenOrderByMonthStartAsc(
+                startDate.withDayOfMonth(1), endDate.withDayOfMonth(1));
+    }
+
+    // Rebuild the counters from the raw payment table (backfills, repairs)
+    @Transactional
+    public int rebuild() {
+        aggregateRepository.deleteAllBuckets();
+        List<Object[]> rows = paymentRepository.sumGroupedByStatusMethodAndMonth();
+        for (Object[] row : rows) {
+            aggregateRepository.applyDelta(row[0].toString(), row[1].toString(), monthStart(row),
+                    (BigDecimal) row[4], ((Number) row[5]).longValue());
+        }
+        return rows.size();
+    }
+
+    // Compare counters with the raw table, rebuild on drift, returns number of mismatched buckets
+    @Scheduled(cron = "${app.payment.aggregate.reconcile-cron:0 30 2 * * *}")
+    @Transactional
+    public int reconcile() {
+        Map<List<Object>, PaymentAggregate> stored = new HashMap<>();
+        for (PaymentAggregate bucket : aggregateRepository.findAll()) {
+            stored.put(List.of(bucket.getStatus(), bucket.getPaymentMethod(), bucket.getMonthStart()), bucket);
+        }
+
+        int mismatches = 0;
+        Set<List<Object>> seen = new HashSet<>();
+        for (Object[] row : paymentRepository.sumGroupedByStatusMethodAndMonth()) {
+            List<Object> key = List.of(row[0], row[1], monthStart(row));
+            seen.add(key);
+            PaymentAggregate bucket = stored.get(key);
+            if (bucket == null || bucket.getPaymentCount() != ((Number) row[5]).longValue()
+                    || bucket.getTotalAmount().compareTo((BigDecimal) row[4]) != 0) {
+                mismatches++;
+            }
+        }
+        // Buckets left over after deletes must be empty
+        for (Map.Entry<List<Object>, PaymentAggregate> entry : stored.entrySet()) {
+            PaymentAggregate bucket = entry.getValue();
+            if (!seen.contains(entry.getKey()) && (bucket.getPaymentCount() != 0
+                    || bucket.getTotalAmount().signum() != 0)) {
+                mismatches++;
+            }
+        }
+
+        if (mismatches > 0) {
+            System.out.println("⚠️ Payment counters drifted in " + mismatches + " buckets, rebuilding");
+            rebuild();
+        }
+        return mismatches;
+    }
+
+    // First day of the month of a grouped raw row
+    private LocalDate monthStart(Object[] row) {
+        return LocalDate.of(((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 1);
+    }
+}
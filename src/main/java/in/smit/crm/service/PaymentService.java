@@ -1,13 +1,20 @@
 package in.smit.crm.service;
 
+import in.smit.crm.dto.KeysetCursor;
+import in.smit.crm.dto.KeysetPage;
+import in.smit.crm.dto.PaymentListItem;
 import in.smit.crm.entity.Payment;
+import in.smit.crm.entity.PaymentMethod;
 import in.smit.crm.entity.PaymentStatus;
 import in.smit.crm.repository.PaymentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -20,25 +27,73 @@ public class PaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private PaymentAggregateService paymentAggregateService;
+
+    @Autowired
+    private StudentBalanceService studentBalanceService;
+
     // Get all payments (for list.html)
     public List<Payment> getAllPayments() {
         return paymentRepository.findAll();
     }
 
-    // Get payment by ID (for edit.html and view details)
+    // Get one page of payments (for list.html), newest or oldest first
+    public KeysetPage<PaymentListItem> getPaymentPage(String cursor, boolean oldestFirst,
+            PaymentStatus status, PaymentMethod method, int size) {
+        KeysetCursor<LocalDate> after = KeysetCursor.decode(cursor, LocalDate::parse);
+        LocalDate afterDate = after != null ? after.getValue() : null;
+        Long afterId = after != null ? after.getId() : null;
+        Limit limit = Limit.of(size + 1);
+
+        List<PaymentListItem> rows = oldestFirst
+                ? paymentRepository.findPageOldestFirst(status, method, afterDate, afterId, limit)
+                : paymentRepository.findPageNewestFirst(status, method, afterDate, afterId, limit);
+        return KeysetPage.of(rows, size, p -> KeysetCursor.encode(p.getPaymentDate(), p.getId()));
+    }
+
+    // Get payment by ID with its student (for edit.html and view details)
     public Payment getPaymentById(Long id) {
-        return paymentRepository.findById(id)
+        return paymentRepository.findWithStudentById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
     }
 
     // Save or update payment (for add.html and edit.html)
+    // Moves the payment between counter buckets when status, method or amount change
+    @Transactional
     public Payment savePayment(Payment payment) {
-        return paymentRepository.save(payment);
+        LocalDate paymentDate = null;
+        Long previousStudentId = null;
+        if (payment.getId() != null) {
+            Payment previous = paymentRepository.findById(payment.getId()).orElse(null);
+            if (previous != null) {
+                // payment_date is not updatable, the original date keeps its month bucket
+                paymentDate = previous.getPaymentDate();
+                previousStudentId = previous.getStudent().getId();
+                paymentAggregateService.recordChange(previous.getStatus(), previous.getPaymentMethod(),
+                        paymentDate, previous.getAmount(), -1);
+            }
+        }
+
+        Payment saved = paymentRepository.save(payment);
+        if (paymentDate == null) {
+            paymentDate = saved.getPaymentDate();
+        }
+        paymentAggregateService.recordChange(saved.getStatus(), saved.getPaymentMethod(),
+                paymentDate, saved.getAmount(), 1);
+        studentBalanceService.refreshStudents(Arrays.asList(previousStudentId, saved.getStudent().getId()));
+        return saved;
     }
 
     // Delete payment by ID
+    @Transactional
     public void deletePayment(Long id) {
-        paymentRepository.deleteById(id);
+        paymentRepository.findById(id).ifPresent(payment -> {
+            paymentAggregateService.recordChange(payment.getStatus(), payment.getPaymentMethod(),
+                    payment.getPaymentDate(), payment.getAmount(), -1);
+            paymentRepository.delete(payment);
+            studentBalanceService.refreshStudent(payment.getStudent().getId());
+        });
     }
 
     // Get payments by student ID (for student payment history)
@@ -73,16 +128,14 @@ public class PaymentService {
         return total != null ? total : BigDecimal.ZERO;
     }
 
-    // Calculate total revenue (completed payments)
+    // Calculate total revenue (completed payments), read from the payment counters
     public BigDecimal calculateTotalRevenue() {
-        BigDecimal revenue = paymentRepository.calculateTotalRevenue();
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        return paymentAggregateService.getTotalByStatus(PaymentStatus.COMPLETED);
     }
 
-    // Calculate pending amount
+    // Calculate pending amount, read from the payment counters
     public BigDecimal calculatePendingAmount() {
-        BigDecimal pending = paymentRepository.calculateTotalPaymentsByStatus(PaymentStatus.PENDING);
-        return pending != null ? pending : BigDecimal.ZERO;
+        return paymentAggregateService.getTotalByStatus(PaymentStatus.PENDING);
     }
 
     // Count payments by status
@@ -0,0 +1,99 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.DefaulterSummary;
+import in.smit.crm.dto.KeysetCursor;
+import in.smit.crm.dto.KeysetPage;
+import in.smit.crm.entity.StudentBalance;
+import in.smit.crm.repository.EnrollmentRepository;
+import in.smit.crm.repository.StudentBalanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Service class for student dues
+ * Keeps student_balance (fees billed - completed payments) in step with payment and enrollment writes
+ * Callers run inside their own transaction so the balance commits with the change
+ */
+@Service
+public class StudentBalanceService {
+
+    // Students recomputed per statement
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private StudentBalanceRepository studentBalanceRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    // Recompute every student's balance (backfills, nightly repair)
+    @Scheduled(cron = "${app.student.balance.refresh-cron:0 0 3 * * *}")
+    @Transactional
+    public int refreshAll() {
+        studentBalanceRepository.deleteAllBalances();
+        return studentBalanceRepository.insertAllBalances();
+    }
+
+    // Recompute balances of the given students (null IDs are ignored)
+    @Transactional
+    public void refreshStudents(Collection<Long> studentIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(studentIds));
+        ids.remove(null);
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            studentBalanceRepository.deleteByStudentIds(chunk);
+            studentBalanceRepository.insertForStudents(chunk);
+        }
+    }
+
+    // Recompute balance of one student
+    @Transactional
+    public void refreshStudent(Long studentId) {
+        refreshStudents(List.of(studentId));
+    }
+
+    // Recompute balances of everyone enrolled in a course (fee changes)
+    @Transactional
+    public void refreshCourseStudents(Long courseId) {
+        refreshStudents(enrollmentRepository.findStudentIdsByCourseId(courseId));
+    }
+
+    // Drop the balance of a deleted student
+    @Transactional
+    public void removeStudent(Long studentId) {
+        studentBalanceRepository.deleteByStudentIds(List.of(studentId));
+    }
+
+    // Get balance of a student, null until first refreshed
+    public StudentBalance getBalance(Long studentId) {
+        return studentBalanceRepository.findById(studentId).orElse(null);
+    }
+
+    // Get one page of students who owe money (for defaulters.html)
+    public KeysetPage<StudentBalance> getDefaulterPage(String cursor, boolean lowestFirst, int size) {
+        KeysetCursor<BigDecimal> after = KeysetCursor.decode(cursor, BigDecimal::new);
+        BigDecimal afterBalance = after != null ? after.getValue() : null;
+        Long afterId = after != null ? after.getId() : null;
+        Limit limit = Limit.of(size + 1);
+
+        List<StudentBalance> rows = lowestFirst
+                ? studentBalanceRepository.findDefaultersLowestFirst(afterBalance, afterId, limit)
+                : studentBalanceRepository.findDefaultersHighestFirst(afterBalance, afterId, limit);
+        return KeysetPage.of(rows, size, b -> KeysetCursor.encode(b.getBalance().toPlainString(), b.getStudentId()));
+    }
+
+    // Count defaulters and the total they owe in one pass over the balances (for defaulters.html)
+    public DefaulterSummary getDefaulterSummary() {
+        Object[] row = studentBalanceRepository.summarizeDefaulters().get(0);
+        return new DefaulterSummary(((Number) row[0]).longValue(), (BigDecimal) row[1]);
+    }
+}
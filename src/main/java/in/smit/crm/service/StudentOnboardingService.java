@@ -0,0 +1,311 @@
+package in.smit.crm.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.smit.crm.dto.JobProgress;
+import in.smit.crm.dto.OnboardingRow;
+import in.smit.crm.entity.Role;
+import in.smit.crm.repository.StudentRepository;
+import in.smit.crm.repository.UserRepository;
+import in.smit.crm.util.ContactKeys;
+import in.smit.crm.util.CsvUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service class for bulk student onboarding from CSV or JSON
+ * CSV header / JSON keys: firstName,lastName,email,phone,dob,password (required), address,username (optional)
+ * Rows are validated up front, then a background job hashes passwords on all cores and batch inserts a chunk at a time
+ */
+@Service
+public class StudentOnboardingService {
+
+    public static final String JOB_TYPE = "student-onboard";
+
+    // Rows hashed and inserted per transaction
+    private static final int CHUNK_SIZE = 500;
+
+    private static final List<String> REQUIRED = List.of("firstName", "lastName", "email", "phone", "dob", "password");
+
+    private static final List<String> OPTIONAL = List.of("address", "username");
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    @Autowired
+    private ThreadPoolTaskExecutor hashExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Parse and validate the file, then queue the onboarding job and return it to poll
+    public JobProgress startOnboarding(String fileName, InputStream input, Long roleId) throws IOException {
+        // Resolved once for the whole file
+        Role role = roleService.getRoleById(roleId);
+
+        JobProgress job = jobRegistry.create(JOB_TYPE, "Onboard students from " + fileName + " as " + role.getRoleName());
+        List<OnboardingRow> rows = new ArrayList<>();
+        long total;
+        try {
+            total = isJson(fileName) ? parseJson(input, job, rows) : parseCsv(input, job, rows);
+        } catch (RuntimeException | IOException e) {
+            jobRegistry.failed(job, e.getMessage());
+            throw e;
+        }
+        jobRegistry.progress(job, job.getErrorCount(), total);
+
+        try {
+            jobExecutor.execute(() -> run(job, rows, role.getId()));
+        } catch (TaskRejectedException e) {
+            jobRegistry.failed(job, "Too many background jobs, try again later");
+            throw new RuntimeException("Too many background jobs running, try again later!");
+        }
+        return job;
+    }
+
+    // Onboarding jobs still held by the registry, newest first
+    public List<JobProgress> getRecentJobs() {
+        return jobRegistry.getRecent(JOB_TYPE);
+    }
+
+    private void run(JobProgress job, List<OnboardingRow> rows, Long roleId) {
+        jobRegistry.running(job);
+        long started = System.currentTimeMillis();
+        int created = 0;
+        try {
+            Set<String> usernames = new HashSet<>();
+            Set<String> emailKeys = new HashSet<>();
+            for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+                List<OnboardingRow> chunk = rows.subList(from, Math.min(from + CHUNK_SIZE, rows.size()));
+                created += writeChunk(job, fresh(job, chunk, usernames, emailKeys), roleId);
+                jobRegistry.progress(job, job.getErrorCount() + created, job.getTotal());
+            }
+            jobRegistry.done(job, "Onboarded " + created + " of " + job.getTotal() + " students in "
+                    + (System.currentTimeMillis() - started) + " ms (" + job.getErrorCount() + " rows failed)");
+        } catch (Exception e) {
+            jobRegistry.failed(job, "Stopped after " + created + " students: " + e.getMessage());
+        }
+    }
+
+    // Drop rows whose username or email is taken, in the database or earlier in the file
+    // Emails are compared by their normalized keys, as on the single student form; shared phones are allowed
+    // (siblings often give a parent's number) and show up on the duplicates page instead
+    private List<OnboardingRow> fresh(JobProgress job, List<OnboardingRow> chunk,
+            Set<String> usernames, Set<String> emailKeys) {
+        Set<String> takenUsernames = lowerCase(userRepository.findExistingUsernames(
+                chunk.stream().map(OnboardingRow::getUsername).toList()));
+        Set<String> takenEmailKeys = new HashSet<>(studentRepository.findExistingEmailKeys(
+                chunk.stream().map(row -> ContactKeys.emailKey(row.getEmail())).toList()));
+
+        List<OnboardingRow> fresh = new ArrayList<>(chunk.size());
+        for (OnboardingRow row : chunk) {
+            String username = row.getUsername().toLowerCase(Locale.ROOT);
+            String emailKey = ContactKeys.emailKey(row.getEmail());
+            if (takenUsernames.contains(username) || takenEmailKeys.contains(emailKey)) {
+                jobRegistry.rowError(job, row.getSource(), "username or email already exists");
+            } else if (usernames.contains(username) || emailKeys.contains(emailKey)) {
+                jobRegistry.rowError(job, row.getSource(), "username or email repeated in file");
+            } else {
+                usernames.add(username);
+                emailKeys.add(emailKey);
+                fresh.add(row);
+            }
+        }
+        return fresh;
+    }
+
+    // Hash the chunk's passwords in parallel, then insert it in one transaction
+    private int writeChunk(JobProgress job, List<OnboardingRow> chunk, Long roleId) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        CompletableFuture.allOf(chunk.stream()
+                .map(row -> CompletableFuture.runAsync(
+                        () -> row.setPassword(passwordEncoder.encode(row.getPassword())), hashExecutor))
+                .toArray(CompletableFuture[]::new)).join();
+
+        try {
+            return studentService.insertOnboardedStudents(chunk, roleId);
+        } catch (DuplicateKeyException e) {
+            // Someone else took a username or email since the check, find the rows one by one
+            int created = 0;
+            for (OnboardingRow row : chunk) {
+                try {
+                    created += studentService.insertOnboardedStudents(List.of(row), roleId);
+                } catch (DuplicateKeyException duplicate) {
+                    jobRegistry.rowError(job, row.getSource(), "username, email or phone already exists");
+                }
+            }
+            return created;
+        }
+    }
+
+    private long parseCsv(InputStream input, JobProgress job, List<OnboardingRow> rows) throws IOException {
+        long total = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new RuntimeException("File is empty!");
+            }
+            Map<String, Integer> columns = resolveColumns(CsvUtils.parseLine(stripBom(header)));
+
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                total++;
+                List<String> fields = CsvUtils.parseLine(line);
+                Map<String, String> values = new HashMap<>();
+                columns.forEach((column, index) -> values.put(column, index < fields.size() ? fields.get(index) : null));
+                addRow(job, rows, "Line " + lineNumber, values);
+            }
+        }
+        return total;
+    }
+
+    private long parseJson(InputStream input, JobProgress job, List<OnboardingRow> rows) throws IOException {
+        List<Map<String, Object>> records = objectMapper.readValue(input, new TypeReference<>() { });
+        if (records == null || records.isEmpty()) {
+            throw new RuntimeException("File is empty!");
+        }
+        for (int i = 0; i < records.size(); i++) {
+            Map<String, String> values = new HashMap<>();
+            if (records.get(i) != null) {
+                records.get(i).forEach((key, value) -> {
+                    String column = canonical(key);
+                    if (column != null && value != null) {
+                        values.put(column, value.toString());
+                    }
+                });
+            }
+            addRow(job, rows, "Record " + (i + 1), values);
+        }
+        return records.size();
+    }
+
+    // Validate one row, invalid rows are recorded on the job instead
+    private void addRow(JobProgress job, List<OnboardingRow> rows, String source, Map<String, String> values) {
+        for (String column : REQUIRED) {
+            if (values.get(column) == null || values.get(column).isBlank()) {
+                jobRegistry.rowError(job, source, "missing " + column);
+                return;
+            }
+        }
+        String email = values.get("email").trim();
+        if (email.indexOf('@') < 1) {
+            jobRegistry.rowError(job, source, "invalid email '" + email + "'");
+            return;
+        }
+        if (ContactKeys.phoneKey(values.get("phone")) == null) {
+            jobRegistry.rowError(job, source, "invalid phone '" + values.get("phone") + "'");
+            return;
+        }
+        LocalDate dob;
+        try {
+            dob = LocalDate.parse(values.get("dob").trim());
+        } catch (DateTimeParseException e) {
+            jobRegistry.rowError(job, source, "invalid dob '" + values.get("dob") + "' (use yyyy-MM-dd)");
+            return;
+        }
+        String address = values.get("address");
+        String username = values.get("username");
+        rows.add(new OnboardingRow(source,
+                values.get("firstName").trim(),
+                values.get("lastName").trim(),
+                email,
+                values.get("phone").trim(),
+                address == null || address.isBlank() ? null : address.trim(),
+                dob,
+                username == null || username.isBlank() ? email : username.trim(),
+                values.get("password")));
+    }
+
+    // Map each known column name to its position in the CSV header
+    private Map<String, Integer> resolveColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = canonical(header.get(i));
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        for (String column : REQUIRED) {
+            if (!columns.containsKey(column)) {
+                throw new RuntimeException("Missing column '" + column + "' in header");
+            }
+        }
+        return columns;
+    }
+
+    // Known column name for a header cell or JSON key, matched ignoring case
+    private static String canonical(String name) {
+        String trimmed = name.trim();
+        for (String column : REQUIRED) {
+            if (column.equalsIgnoreCase(trimmed)) {
+                return column;
+            }
+        }
+        for (String column : OPTIONAL) {
+            if (column.equalsIgnoreCase(trimmed)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isJson(String fileName) {
+        return fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".json");
+    }
+
+    private static Set<String> lowerCase(List<String> values) {
+        Set<String> lower = new HashSet<>();
+        values.forEach(value -> lower.add(value.toLowerCase(Locale.ROOT)));
+        return lower;
+    }
+
+    // Spreadsheet exports often start with a UTF-8 byte order mark
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+}
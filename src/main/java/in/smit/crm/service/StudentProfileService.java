@@ -0,0 +1,124 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.AttendanceSummary;
+import in.smit.crm.dto.StudentProfile;
+import in.smit.crm.entity.Enrollment;
+import in.smit.crm.entity.Payment;
+import in.smit.crm.entity.Student;
+import in.smit.crm.entity.StudentBalance;
+import in.smit.crm.repository.EnrollmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Service class for the student 360 page
+ * Runs the independent reads of a profile in parallel on the fan-out executor,
+ * so the page waits for the slowest read instead of the sum of all of them
+ */
+@Service
+public class StudentProfileService {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private StudentBalanceService studentBalanceService;
+
+    @Autowired
+    private ThreadPoolTaskExecutor fanoutExecutor;
+
+    @Value("${app.fanout.timeout-ms:5000}")
+    private long timeoutMs;
+
+    // Load a student's profile (for student-view.html), fails as soon as any read fails
+    public StudentProfile getProfile(Long studentId) {
+        long start = System.currentTimeMillis();
+
+        CompletableFuture<Student> student = fork(() -> studentService.getStudentById(studentId));
+        CompletableFuture<List<Enrollment>> enrollments = fork(() -> enrollmentRepository.findByStudentId(studentId));
+        CompletableFuture<Map<Long, AttendanceSummary>> attendance =
+                fork(() -> attendanceService.getAttendanceSummariesByStudent(studentId));
+        CompletableFuture<BigDecimal> totalPaid = fork(() -> paymentService.calculateTotalPaymentsByStudent(studentId));
+        CompletableFuture<List<Payment>> pendingPayments =
+                fork(() -> paymentService.getPendingPaymentsByStudent(studentId));
+        CompletableFuture<StudentBalance> balance = fork(() -> studentBalanceService.getBalance(studentId));
+        join(student, enrollments, attendance, totalPaid, pendingPayments, balance);
+
+        List<Enrollment> sorted = new ArrayList<>(enrollments.join());
+        sorted.sort(Comparator.comparing(Enrollment::getEnrollmentDate,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        Map<Long, AttendanceSummary> summaries = attendance.join();
+        for (Enrollment enrollment : sorted) {
+            summaries.computeIfAbsent(enrollment.getId(), AttendanceSummary::empty);
+        }
+        BigDecimal pendingAmount = pendingPayments.join().stream()
+                .map(Payment::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return new StudentProfile(student.join(), sorted, summaries, totalPaid.join(), pendingPayments.join(),
+                pendingAmount, balance.join(), System.currentTimeMillis() - start);
+    }
+
+    private <T> CompletableFuture<T> fork(Supplier<T> read) {
+        return CompletableFuture.supplyAsync(read, fanoutExecutor);
+    }
+
+    // Wait for all reads, or for the first failure, whichever comes first
+    private void join(CompletableFuture<?>... reads) {
+        CompletableFuture<Object> firstFailure = new CompletableFuture<>();
+        for (CompletableFuture<?> read : reads) {
+            read.whenComplete((value, error) -> {
+                if (error != null) {
+                    firstFailure.completeExceptionally(error);
+                }
+            });
+        }
+
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(reads), firstFailure).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            cancel(reads);
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Could not load student profile: " + cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            cancel(reads);
+            throw new RuntimeException("Student profile took too long to load, try again!");
+        } catch (InterruptedException e) {
+            cancel(reads);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Student profile loading was interrupted!");
+        }
+    }
+
+    private void cancel(CompletableFuture<?>... reads) {
+        for (CompletableFuture<?> read : reads) {
+            read.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.LookupOption;
+import in.smit.crm.event.StudentChangedEvent;
+import in.smit.crm.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index for student search over name, email and phone
+ * Built at startup, kept current from StudentChangedEvent and rebuilt nightly.
+ * Students live in slots of primitive arrays, each trigram maps to a sorted int[] of slots,
+ * so a search only intersects the posting lists of the query's trigrams.
+ */
+@Service
+public class StudentSearchIndex {
+
+    // Keeps trigrams from spanning two fields of a slot's text
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    // First char of the word-start grams used for queries shorter than a trigram
+    private static final char PREFIX_MARK = '\u0002';
+
+    // Field tags in the top bits of a gram, so name and email/phone grams get separate posting lists
+    private static final long NAME = 1L << 48;
+    private static final long CONTACT = 2L << 48;
+    private static final long NAME_START = 3L << 48;
+
+    // Dead slots tolerated before the live ones are copied into a fresh segment
+    private static final int MIN_DEAD_FOR_COMPACTION = 1024;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private final ReadWriteLock lock = new ReadWriteLock();
+
+    private Segment segment = new Segment(1024);
+
+    // Changes seen while a rebuild is streaming, replayed onto the new segment
+    private List<StudentChangedEvent> pending;
+
+    // Rebuild the whole index from the student table (startup, nightly repair), returns number of students
+    @Scheduled(cron = "${app.student.search.rebuild-cron:0 0 4 * * *}")
+    @Transactional(readOnly = true)
+    public synchronized int rebuild() {
+        lock.write(() -> pending = new ArrayList<>());
+        Segment fresh;
+        try {
+            fresh = new Segment((int) Math.max(1024, studentRepository.count()));
+            try (Stream<Object[]> rows = studentRepository.streamSearchFields()) {
+                Segment target = fresh;
+                rows.forEach(row -> target.put(((Number) row[0]).longValue(),
+                        (String) row[1], (String) row[2], (String) row[3], (String) row[4]));
+            }
+        } catch (RuntimeException | Error e) {
+            // A half-streamed segment would drop every student past the failure, keep serving the old one
+            lock.write(() -> pending = null);
+            throw e;
+        }
+        Segment built = fresh;
+        lock.write(() -> {
+            pending.forEach(built::apply);
+            segment = built;
+            pending = null;
+        });
+        return built.liveCount();
+    }
+
+    // Apply a saved or deleted student once its transaction has committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        lock.write(() -> {
+            segment.apply(event);
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (segment.dead >= MIN_DEAD_FOR_COMPACTION && segment.dead > segment.liveCount()) {
+                segment = segment.compacted();
+            }
+        });
+    }
+
+    // IDs of students whose name, email or phone contains the query, best matches first
+    // Queries shorter than a trigram only match at the start of a word
+    public List<Long> search(String query, int limit) {
+        String needle = needle(query);
+        if (needle.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return lock.read(() -> {
+            List<Long> ids = new ArrayList<>();
+            for (int slot : segment.searchSlots(needle, limit)) {
+                ids.add(segment.studentIds[slot]);
+            }
+            return ids;
+        });
+    }
+
+    // Best matches as "First Last (email)" suggestions, answered from the index alone (for typeahead)
+    public List<LookupOption> lookup(String query, int limit) {
+        String needle = needle(query);
+        if (needle.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return lock.read(() -> {
+            List<LookupOption> options = new ArrayList<>();
+            for (int slot : segment.searchSlots(needle, limit)) {
+                options.add(new LookupOption(segment.studentIds[slot], segment.label(slot)));
+            }
+            return options;
+        });
+    }
+
+    // Number of students in the index
+    public int size() {
+        return lock.read(() -> segment.liveCount());
+    }
+
+    // Lower-cased query with collapsed blanks, or only its digits when it looks like a phone number
+    static String needle(String query) {
+        if (query == null) {
+            return "";
+        }
+        String text = normalize(query);
+        String digits = digits(query);
+        if (!digits.isEmpty() && text.chars().allMatch(c -> Character.isDigit(c) || "+-(). ".indexOf(c) >= 0)) {
+            return digits;
+        }
+        return text;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    static String digits(String value) {
+        return value == null ? "" : value.replaceAll("\\D", "");
+    }
+
+    // Runs the body while holding the read or the write half of the lock
+    private static final class ReadWriteLock {
+
+        private final ReentrantReadWriteLock delegate = new ReentrantReadWriteLock();
+
+        <T> T read(Supplier<T> body) {
+            delegate.readLock().lock();
+            try {
+                return body.get();
+            } finally {
+                delegate.readLock().unlock();
+            }
+        }
+
+        void write(Runnable body) {
+            delegate.writeLock().lock();
+            try {
+                body.run();
+            } finally {
+                delegate.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Slots of students plus their posting lists
+     * Slots are handed out in increasing order, so appending keeps every posting list sorted.
+     * Updates and deletes only blank the old slot, compaction drops the blanks.
+     */
+    static final class Segment {
+
+        private long[] studentIds;
+        private String[] names;
+        // Lower-cased "first last", email and phone digits, FIELD_SEPARATOR between them; null for dead slots
+        private String[] texts;
+        private int size;
+        private int dead;
+
+        private final LongIntMap slotByStudent;
+        private final Map<Long, Postings> postings = new HashMap<>();
+
+        Segment(int capacity) {
+            studentIds = new long[capacity];
+            names = new String[capacity];
+            texts = new String[capacity];
+            slotByStudent = new LongIntMap(capacity);
+        }
+
+        int liveCount() {
+            return size - dead;
+        }
+
+        void apply(StudentChangedEvent event) {
+            if (event.isDeleted()) {
+                remove(event.getStudentId());
+            } else {
+                put(event.getStudentId(), event.getFirstName(), event.getLastName(), event.getEmail(), event.getPhone());
+            }
+        }
+
+        void put(long studentId, String firstName, String lastName, String email, String phone) {
+            remove(studentId);
+            String name = ((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName)).trim();
+            putText(studentId, name,
+                    normalize(name) + FIELD_SEPARATOR + normalize(email) + FIELD_SEPARATOR + digits(phone));
+        }
+
+        void remove(long studentId) {
+            int slot = slotByStudent.remove(studentId);
+            if (slot >= 0) {
+                names[slot] = null;
+                texts[slot] = null;
+                dead++;
+            }
+        }
+
+        Segment compacted() {
+            Segment fresh = new Segment(Math.max(1024, liveCount()));
+            for (int slot = 0; slot < size; slot++) {
+                if (texts[slot] != null) {
+                    fresh.putText(studentIds[slot], names[slot], texts[slot]);
+                }
+            }
+            return fresh;
+        }
+
+        private void putText(long studentId, String name, String text) {
+            if (size == studentIds.length) {
+                int capacity = size + (size >> 1);
+                studentIds = Arrays.copyOf(studentIds, capacity);
+                names = Arrays.copyOf(names, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+            }
+            int slot = size++;
+            studentIds[slot] = studentId;
+            names[slot] = name;
+            texts[slot] = text;
+            slotByStudent.put(studentId, slot);
+            for (long gram : grams(text)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(slot);
+            }
+        }
+
+        // Three passes, each over the posting lists of one field, best ranks first:
+        // 0 name starts with the query, 1 a name word does, 2 name contains it,
+        // 3 an email/phone word starts with it, 4 email/phone contains it.
+        // A pass stops once the best rank it can still add is full, ties go to lower slots
+        // and only the returned page is sorted by name.
+        int[] searchSlots(String needle, int limit) {
+            boolean wordStartOnly = needle.length() < 3;
+            long[] nameGrams = wordStartOnly ? new long[] { NAME | prefixGram(needle) } : trigrams(needle, NAME);
+            long[] contactGrams = wordStartOnly ? new long[] { CONTACT | prefixGram(needle) } : trigrams(needle, CONTACT);
+            long[] startGrams = Arrays.copyOf(nameGrams, nameGrams.length + 1);
+            startGrams[nameGrams.length] = NAME_START | prefixGram(needle.substring(0, Math.min(2, needle.length())));
+
+            int[][] hits = new int[5][limit];
+            int[] counts = new int[5];
+            scan(startGrams, slot -> texts[slot].startsWith(needle) ? 0 : -1, 0, hits, counts, limit);
+            scan(nameGrams, slot -> {
+                int rank = bestRank(texts[slot], 0, texts[slot].indexOf(FIELD_SEPARATOR), needle, wordStartOnly);
+                return rank > 0 ? rank : -1;
+            }, 1, hits, counts, limit);
+            scan(contactGrams, slot -> {
+                String text = texts[slot];
+                int nameEnd = text.indexOf(FIELD_SEPARATOR);
+                if (bestRank(text, 0, nameEnd, needle, wordStartOnly) >= 0) {
+                    return -1;
+                }
+                int rank = bestRank(text, nameEnd + 1, text.length(), needle, wordStartOnly);
+                return rank < 0 ? -1 : rank < 2 ? 3 : 4;
+            }, 3, hits, counts, limit);
+
+            List<int[]> page = new ArrayList<>();
+            for (int rank = 0; rank < hits.length && page.size() < limit; rank++) {
+                for (int i = 0; i < counts[rank] && page.size() < limit; i++) {
+                    page.add(new int[] { hits[rank][i], rank });
+                }
+            }
+            page.sort(Comparator.<int[]>comparingInt(hit -> hit[1])
+                    .thenComparing(hit -> names[hit[0]], String.CASE_INSENSITIVE_ORDER)
+                    .thenComparingLong(hit -> studentIds[hit[0]]));
+
+            int[] slots = new int[page.size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = page.get(i)[0];
+            }
+            return slots;
+        }
+
+        String label(int slot) {
+            String text = texts[slot];
+            int emailStart = text.indexOf(FIELD_SEPARATOR) + 1;
+            String email = text.substring(emailStart, text.indexOf(FIELD_SEPARATOR, emailStart));
+            return email.isEmpty() ? names[slot] : names[slot] + " (" + email + ")";
+        }
+
+        // Rank slots holding all grams in slot order until ranks 0..stopRank hold a full page
+        private void scan(long[] grams, IntUnaryOperator ranker, int stopRank, int[][] hits, int[] counts, int limit) {
+            if (filled(counts, stopRank) >= limit) {
+                return;
+            }
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+
+            Postings smallest = lists[0];
+            for (int i = 0; i < smallest.size; i++) {
+                int slot = smallest.slots[i];
+                if (texts[slot] == null || !inAll(lists, slot)) {
+                    continue;
+                }
+                // Trigrams only narrow the candidates, the ranker checks the whole query
+                int rank = ranker.applyAsInt(slot);
+                if (rank < 0 || counts[rank] == limit) {
+                    continue;
+                }
+                hits[rank][counts[rank]++] = slot;
+                if (filled(counts, stopRank) >= limit) {
+                    return;
+                }
+            }
+        }
+
+        private static int filled(int[] counts, int upToRank) {
+            int total = 0;
+            for (int rank = 0; rank <= upToRank; rank++) {
+                total += counts[rank];
+            }
+            return total;
+        }
+
+        private static boolean inAll(Postings[] lists, int slot) {
+            for (int i = 1; i < lists.length; i++) {
+                if (Arrays.binarySearch(lists[i].slots, 0, lists[i].size, slot) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Best match of the query inside text[from, to): 0 at from, 1 at a word start, 2 anywhere, -1 none
+        private static int bestRank(String text, int from, int to, String needle, boolean wordStartOnly) {
+            int rank = -1;
+            for (int at = text.indexOf(needle, from); at >= 0 && at + needle.length() <= to;
+                    at = text.indexOf(needle, at + 1)) {
+                boolean wordStart = at == from || !Character.isLetterOrDigit(text.charAt(at - 1));
+                if (wordStartOnly && !wordStart) {
+                    continue;
+                }
+                int candidate = at == from ? 0 : wordStart ? 1 : 2;
+                if (rank < 0 || candidate < rank) {
+                    rank = candidate;
+                }
+                if (rank == 0) {
+                    break;
+                }
+            }
+            return rank;
+        }
+
+        // Distinct name and email/phone grams: trigrams, 1 and 2 char word prefixes, 1 and 2 char name prefixes
+        private static long[] grams(String text) {
+            int nameEnd = text.indexOf(FIELD_SEPARATOR);
+            long[] grams = new long[text.length() * 3 + 2];
+            int count = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == FIELD_SEPARATOR) {
+                    continue;
+                }
+                long field = i < nameEnd ? NAME : CONTACT;
+                boolean pair = i + 1 < text.length() && text.charAt(i + 1) != FIELD_SEPARATOR;
+                if (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    grams[count++] = field | prefixGram(String.valueOf(c));
+                    if (pair) {
+                        grams[count++] = field | prefixGram(text.substring(i, i + 2));
+                    }
+                }
+                if (pair && i + 2 < text.length() && text.charAt(i + 2) != FIELD_SEPARATOR) {
+                    grams[count++] = field | pack(c, text.charAt(i + 1), text.charAt(i + 2));
+                }
+            }
+            if (nameEnd > 0) {
+                grams[count++] = NAME_START | prefixGram(text.substring(0, 1));
+            }
+            if (nameEnd > 1) {
+                grams[count++] = NAME_START | prefixGram(text.substring(0, 2));
+            }
+            return distinct(grams, count);
+        }
+
+        private static long[] trigrams(String needle, long field) {
+            long[] grams = new long[needle.length() - 2];
+            for (int i = 0; i + 2 < needle.length(); i++) {
+                grams[i] = field | pack(needle.charAt(i), needle.charAt(i + 1), needle.charAt(i + 2));
+            }
+            return distinct(grams, grams.length);
+        }
+
+        private static long prefixGram(String prefix) {
+            return pack(PREFIX_MARK, prefix.charAt(0), prefix.length() > 1 ? prefix.charAt(1) : 0);
+        }
+
+        private static long pack(char a, char b, char c) {
+            return ((long) a << 32) | ((long) b << 16) | c;
+        }
+
+        private static long[] distinct(long[] values, int count) {
+            Arrays.sort(values, 0, count);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || values[i] != values[unique - 1]) {
+                    values[unique++] = values[i];
+                }
+            }
+            return Arrays.copyOf(values, unique);
+        }
+    }
+
+    // Growable sorted int[] of slots
+    static final class Postings {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size << 1);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    /**
+     * Open-addressing long -> int map (student ID -> slot) without boxing
+     * Key 0 marks a free cell, student IDs start at 1.
+     */
+    static final class LongIntMap {
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LongIntMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+        }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = index(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = index(key, mask);
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        // Returns the removed value or -1, later cells of the probe run are shifted back over the hole
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int i = index(key, mask);
+            while (keys[i] != key) {
+                if (keys[i] == 0) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int value = values[i];
+            int gap = i;
+            for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                int home = index(keys[j], mask);
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = 0;
+            size--;
+            return value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length << 1];
+            values = new int[oldKeys.length << 1];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int index(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
@@ -1,11 +1,35 @@
 package in.smit.crm.service;
 
+import in.smit.crm.config.CacheConfig;
+import in.smit.crm.dto.CurrentStudent;
+import in.smit.crm.dto.KeysetCursor;
+import in.smit.crm.dto.KeysetPage;
+import in.smit.crm.dto.OnboardingRow;
 import in.smit.crm.entity.Student;
+import in.smit.crm.event.StudentChangedEvent;
+import in.smit.crm.repository.EnrollmentRepository;
 import in.smit.crm.repository.StudentRepository;
+import in.smit.crm.repository.UserRepository;
+import in.smit.crm.util.ContactKeys;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Service class for Student entity
@@ -14,14 +38,76 @@ import java.util.List;
 @Service
 public class StudentService {
 
+    // Rows sent to the driver per JDBC batch
+    private static final int BATCH_SIZE = 500;
+
+    // Students named in the shared phone warning
+    private static final int PHONE_MATCH_LIMIT = 3;
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO user (username, password, role_id, created_at) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_STUDENT_SQL =
+            "INSERT INTO student (first_name, last_name, email, phone, address, dob, enrollment_date, user_id, " +
+                    "email_key, phone_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private PaymentAggregateService paymentAggregateService;
+
+    @Autowired
+    private StudentBalanceService studentBalanceService;
+
+    @Autowired
+    private AttendanceRollupService attendanceRollupService;
+
+    @Autowired
+    private EnrollmentStatService enrollmentStatService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentSearchIndex studentSearchIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.student.search.limit:100}")
+    private int searchLimit;
+
     // Get all students (for list.html)
     public List<Student> getAllStudents() {
         return studentRepository.findAll();
     }
 
+    // Get one page of students ordered by last name (for list.html)
+    public KeysetPage<Student> getStudentPage(String cursor, boolean descending, int size) {
+        KeysetCursor<String> after = KeysetCursor.decode(cursor);
+        String afterName = after != null ? after.getValue() : null;
+        Long afterId = after != null ? after.getId() : null;
+        Limit limit = Limit.of(size + 1);
+
+        List<Student> rows = descending
+                ? studentRepository.findPageByNameDescending(afterName, afterId, limit)
+                : studentRepository.findPageByNameAscending(afterName, afterId, limit);
+        return KeysetPage.of(rows, size, s -> KeysetCursor.encode(s.getLastName(), s.getId()));
+    }
+
     // Get student by ID (for edit.html and view details)
     public Student getStudentById(Long id) {
         return studentRepository.findById(id)
@@ -29,13 +115,101 @@ public class StudentService {
     }
 
     // Save or update student (for add.html and edit.html)
+    @CacheEvict(value = CacheConfig.STUDENT_PROFILES, key = "#student.user?.id", condition = "#student.user != null")
     public Student saveStudent(Student student) {
-        return studentRepository.save(student);
+        checkNotDuplicate(student);
+        Student saved = studentRepository.save(student);
+        eventPublisher.publishEvent(new StudentChangedEvent(saved.getId(), saved.getFirstName(),
+                saved.getLastName(), saved.getEmail(), saved.getPhone(), false));
+        return saved;
+    }
+
+    // Reject a student whose email (normalized) belongs to another student, one index lookup
+    // Only when the email key changes, so rows that already collide can still be edited
+    public void checkNotDuplicate(Student student) {
+        String emailKey = ContactKeys.emailKey(student.getEmail());
+        if (emailKey == null || (student.getId() != null
+                && emailKey.equals(studentRepository.findEmailKeyById(student.getId())))) {
+            return;
+        }
+        for (Student match : studentRepository.findByEmailKey(emailKey, Limit.of(2))) {
+            if (!match.getId().equals(student.getId())) {
+                throw new RuntimeException("Student " + match.getFirstName() + " " + match.getLastName()
+                        + " already has this email!");
+            }
+        }
+    }
+
+    // Other students with the same phone (normalized), a warning only since siblings often share a parent's number
+    public List<Student> findPhoneMatches(Student student) {
+        String phoneKey = ContactKeys.phoneKey(student.getPhone());
+        if (phoneKey == null) {
+            return List.of();
+        }
+        return studentRepository.findByPhoneKey(phoneKey, Limit.of(PHONE_MATCH_LIMIT + 1)).stream()
+                .filter(match -> !match.getId().equals(student.getId()))
+                .limit(PHONE_MATCH_LIMIT)
+                .toList();
+    }
+
+    // Insert users and their student profiles with JDBC batches (bulk onboarding), returns students created
+    // Passwords must already be hashed; a taken username or email fails the whole call with DuplicateKeyException
+    @Transactional
+    public int insertOnboardedStudents(List<OnboardingRow> rows, Long roleId) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.getUsername());
+            ps.setString(2, row.getPassword());
+            ps.setLong(3, roleId);
+            ps.setTimestamp(4, now);
+        });
+
+        Map<String, Long> userIds = new HashMap<>();
+        List<String> usernames = rows.stream().map(OnboardingRow::getUsername).toList();
+        for (Object[] user : userRepository.findIdsByUsernames(usernames)) {
+            userIds.put(((String) user[1]).toLowerCase(Locale.ROOT), (Long) user[0]);
+        }
+
+        Date today = Date.valueOf(LocalDate.now());
+        jdbcTemplate.batchUpdate(INSERT_STUDENT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.getFirstName());
+            ps.setString(2, row.getLastName());
+            ps.setString(3, row.getEmail());
+            ps.setString(4, row.getPhone());
+            ps.setString(5, row.getAddress());
+            ps.setDate(6, Date.valueOf(row.getDob()));
+            ps.setDate(7, today);
+            ps.setLong(8, userIds.get(row.getUsername().toLowerCase(Locale.ROOT)));
+            ps.setString(9, ContactKeys.emailKey(row.getEmail()));
+            ps.setString(10, ContactKeys.phoneKey(row.getPhone()));
+        });
+
+        List<String> emails = rows.stream().map(OnboardingRow::getEmail).toList();
+        for (Object[] student : studentRepository.findSearchFieldsByEmails(emails)) {
+            eventPublisher.publishEvent(new StudentChangedEvent((Long) student[0], (String) student[1],
+                    (String) student[2], (String) student[3], (String) student[4], false));
+        }
+        return rows.size();
     }
 
-    // Delete student by ID
+    // Delete student by ID (payments, enrollments and attendance are removed by cascade, so take them off the counters first)
+    // The profile cache is keyed by user ID, which isn't known up front; deletes are rare, so clear it all
+    @CacheEvict(value = CacheConfig.STUDENT_PROFILES, allEntries = true)
+    @Transactional
     public void deleteStudent(Long id) {
+        paymentAggregateService.removeStudentPayments(id);
+        enrollmentStatService.removeStudentEnrollments(id);
+        attendanceRollupService.removeStudent(id);
+        studentBalanceService.removeStudent(id);
+        waitlistService.removeStudent(id);
+        List<Long> courseIds = enrollmentRepository.findCourseIdsByStudentId(id);
         studentRepository.deleteById(id);
+        studentRepository.flush();
+        eventPublisher.publishEvent(new StudentChangedEvent(id, null, null, null, null, true));
+        courseService.recountSeats(courseIds);
     }
 
     // Find student by email
@@ -49,10 +223,27 @@ public class StudentService {
         return studentRepository.existsByEmail(email);
     }
 
-    // Search students by name (for search functionality)
+    // Search students by name, email or phone, best matches first (for search functionality)
     public List<Student> searchStudents(String keyword) {
-        return studentRepository
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(keyword, keyword);
+        List<Long> ids = studentSearchIndex.search(keyword, searchLimit);
+        Map<Long, Student> students = new HashMap<>();
+        for (Student student : studentRepository.findAllById(ids)) {
+            students.put(student.getId(), student);
+        }
+        List<Student> ranked = new ArrayList<>();
+        for (Long id : ids) {
+            if (students.containsKey(id)) {
+                ranked.add(students.get(id));
+            }
+        }
+        return ranked;
+    }
+
+    // Portal profile of the logged-in user, null when the user has no student profile
+    // Cached per user until an admin edits or deletes the student
+    @Cacheable(value = CacheConfig.STUDENT_PROFILES, unless = "#result == null")
+    public CurrentStudent getCurrentStudent(Long userId) {
+        return studentRepository.findCurrentStudentByUserId(userId).orElse(null);
     }
 
     // Get student by user ID
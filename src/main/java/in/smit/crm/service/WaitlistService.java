@@ -0,0 +1,154 @@
+package in.smit.crm.service;
+
+import in.smit.crm.entity.Enrollment;
+import in.smit.crm.entity.EnrollmentStatus;
+import in.smit.crm.entity.Student;
+import in.smit.crm.entity.WaitlistEntry;
+import in.smit.crm.entity.WaitlistStatus;
+import in.smit.crm.event.SeatReleasedEvent;
+import in.smit.crm.repository.CourseRepository;
+import in.smit.crm.repository.EnrollmentRepository;
+import in.smit.crm.repository.StudentRepository;
+import in.smit.crm.repository.WaitlistEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service class for course waitlists
+ * Queues students for full courses and moves the head of the queue into an ACTIVE
+ * enrollment whenever a seat is released (driven by SeatReleasedEvent, no polling)
+ */
+@Service
+public class WaitlistService {
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentStatService enrollmentStatService;
+
+    @Autowired
+    private StudentBalanceService studentBalanceService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Queue a student for a course (for enrollment-add.html)
+    @Transactional
+    public WaitlistEntry joinWaitlist(Long studentId, Long courseId) {
+        if (enrollmentRepository.existsByStudentIdAndCourseIdAndStatus(studentId, courseId, EnrollmentStatus.ACTIVE)) {
+            throw new RuntimeException("Student is already enrolled in this course!");
+        }
+        if (waitlistEntryRepository.existsByStudentIdAndCourseIdAndStatus(studentId, courseId, WaitlistStatus.WAITING)) {
+            throw new RuntimeException("Student is already on the waitlist for this course!");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setStudent(studentRepository.getReferenceById(studentId));
+        entry.setCourse(courseRepository.getReferenceById(courseId));
+        WaitlistEntry saved = waitlistEntryRepository.save(entry);
+        // The course may have a free seat already
+        eventPublisher.publishEvent(new SeatReleasedEvent(courseId));
+        return saved;
+    }
+
+    // Take a waiting student off the queue (for waitlist.html)
+    @Transactional
+    public void cancelEntry(Long id) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Waitlist entry not found with id: " + id));
+        if (entry.getStatus() != WaitlistStatus.WAITING) {
+            throw new RuntimeException("Only waiting entries can be cancelled!");
+        }
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        entry.setResolvedAt(LocalDateTime.now());
+    }
+
+    // Get waiting students, oldest first per course (for waitlist.html)
+    public List<WaitlistEntry> getQueue(Long courseId) {
+        return waitlistEntryRepository.findQueue(WaitlistStatus.WAITING, courseId);
+    }
+
+    // Remove all entries of a student (before the student is deleted)
+    @Transactional
+    public void removeStudent(Long studentId) {
+        waitlistEntryRepository.deleteByStudentId(studentId);
+    }
+
+    // Remove all entries of a course (before the course is deleted)
+    @Transactional
+    public void removeCourse(Long courseId) {
+        waitlistEntryRepository.deleteByCourseId(courseId);
+    }
+
+    // Runs once the releasing transaction has committed, in a transaction of its own
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSeatReleased(SeatReleasedEvent event) {
+        promote(event.getCourseId());
+    }
+
+    // Fill free seats of a course from the head of its queue, returns number of students promoted
+    // Claiming the seat first locks the course row, so promotions of the same course run one at a time
+    @Transactional
+    public int promote(Long courseId) {
+        int promoted = 0;
+        while (courseRepository.claimSeat(courseId) > 0) {
+            Optional<WaitlistEntry> head =
+                    waitlistEntryRepository.findFirstByCourseIdAndStatusOrderByIdAsc(courseId, WaitlistStatus.WAITING);
+            if (head.isEmpty()) {
+                courseRepository.releaseSeat(courseId);
+                break;
+            }
+
+            WaitlistEntry entry = head.get();
+            Student student = entry.getStudent();
+            entry.setResolvedAt(LocalDateTime.now());
+            // Enrolled some other way while waiting, the seat goes to the next in line
+            if (enrollmentRepository.existsByStudentIdAndCourseIdAndStatus(student.getId(), courseId,
+                    EnrollmentStatus.ACTIVE)) {
+                entry.setStatus(WaitlistStatus.CANCELLED);
+                courseRepository.releaseSeat(courseId);
+                continue;
+            }
+
+            Enrollment enrollment = new Enrollment();
+            enrollment.setStudent(student);
+            enrollment.setCourse(entry.getCourse());
+            enrollment.setStatus(EnrollmentStatus.ACTIVE);
+            enrollmentRepository.save(enrollment);
+            enrollmentStatService.recordChange(enrollment.getEnrollmentDate(), 1);
+            enrollmentStatService.recordCourseChange(courseId, EnrollmentStatus.ACTIVE, 1);
+            studentBalanceService.refreshStudent(student.getId());
+            entry.setStatus(WaitlistStatus.PROMOTED);
+
+            String studentName = student.getFirstName() + " " + student.getLastName();
+            notificationService.createStudentNotification(student.getId(),
+                    "Waitlist promotion: " + studentName,
+                    studentName + " got a seat in " + entry.getCourse().getCourseName()
+                            + " and is now enrolled.");
+            promoted++;
+        }
+        return promoted;
+    }
+}
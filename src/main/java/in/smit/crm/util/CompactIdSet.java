@@ -0,0 +1,271 @@
+package in.smit.crm.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Compact set of non-negative int-range IDs, split into roaring-bitmap style containers
+ * Each container covers 65536 IDs sharing the high 16 bits: a sorted char array while it holds up to
+ * 4096 IDs (2 bytes each), a 8 KB bitmap once it holds more. Serialized with toBytes() for BLOB columns
+ * Not thread-safe
+ */
+public final class CompactIdSet {
+
+    // Largest array container, beyond this a bitmap is smaller
+    private static final int ARRAY_MAX = 4096;
+
+    private static final int BITMAP_WORDS = 1024;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    // High 16 bits of each container, sorted
+    private char[] keys = new char[4];
+
+    private Container[] containers = new Container[4];
+
+    private int count;
+
+    private int size;
+
+    public static CompactIdSet of(long... ids) {
+        CompactIdSet set = new CompactIdSet();
+        for (long id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    public boolean contains(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        int index = indexOf((char) (id >>> 16));
+        return index >= 0 && containers[index].contains((char) id);
+    }
+
+    // Returns false when the ID was already present
+    public boolean add(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ID out of range: " + id);
+        }
+        char key = (char) (id >>> 16);
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                containers = Arrays.copyOf(containers, count * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, count - index);
+            System.arraycopy(containers, index, containers, index + 1, count - index);
+            keys[index] = key;
+            containers[index] = new Container();
+            count++;
+        }
+        if (containers[index].add((char) id)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Visit every ID in ascending order
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < count; i++) {
+            containers[i].forEach(((long) keys[i]) << 16, action);
+        }
+    }
+
+    // Layout: version, ID count, container count, then per container its key, cardinality and
+    // either cardinality chars (array) or 1024 longs (bitmap)
+    public byte[] toBytes() {
+        int length = 1 + 4 + 4;
+        for (int i = 0; i < count; i++) {
+            length += 2 + 4 + containers[i].serializedLength();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put(FORMAT_VERSION).putInt(size).putInt(count);
+        for (int i = 0; i < count; i++) {
+            Container container = containers[i];
+            buffer.putChar(keys[i]).putInt(container.size);
+            if (container.bits != null) {
+                for (long word : container.bits) {
+                    buffer.putLong(word);
+                }
+            } else {
+                for (int j = 0; j < container.size; j++) {
+                    buffer.putChar(container.values[j]);
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    // Inverse of toBytes(), null or empty input gives an empty set
+    public static CompactIdSet fromBytes(byte[] bytes) {
+        CompactIdSet set = new CompactIdSet();
+        if (bytes == null || bytes.length == 0) {
+            return set;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown ID set format: " + version);
+        }
+        set.size = buffer.getInt();
+        set.count = buffer.getInt();
+        set.keys = new char[Math.max(4, set.count)];
+        set.containers = new Container[set.keys.length];
+        for (int i = 0; i < set.count; i++) {
+            set.keys[i] = buffer.getChar();
+            Container container = new Container();
+            container.size = buffer.getInt();
+            if (container.size > ARRAY_MAX) {
+                container.bits = new long[BITMAP_WORDS];
+                for (int j = 0; j < BITMAP_WORDS; j++) {
+                    container.bits[j] = buffer.getLong();
+                }
+                container.values = null;
+            } else {
+                container.values = new char[Math.max(4, container.size)];
+                for (int j = 0; j < container.size; j++) {
+                    container.values[j] = buffer.getChar();
+                }
+            }
+            set.containers[i] = container;
+        }
+        return set;
+    }
+
+    // contains() straight on toBytes() output, skipping containers without decoding them
+    public static boolean contains(byte[] bytes, long id) {
+        if (bytes == null || bytes.length == 0 || id < 0 || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown ID set format");
+        }
+        buffer.getInt();
+        int containerCount = buffer.getInt();
+        char key = (char) (id >>> 16);
+        char low = (char) id;
+        for (int i = 0; i < containerCount; i++) {
+            char containerKey = buffer.getChar();
+            int cardinality = buffer.getInt();
+            int start = buffer.position();
+            if (containerKey == key) {
+                if (cardinality > ARRAY_MAX) {
+                    return (buffer.getLong(start + (low >>> 6) * 8) & (1L << low)) != 0;
+                }
+                int from = 0;
+                int to = cardinality - 1;
+                while (from <= to) {
+                    int middle = (from + to) >>> 1;
+                    char value = buffer.getChar(start + middle * 2);
+                    if (value < low) {
+                        from = middle + 1;
+                    } else if (value > low) {
+                        to = middle - 1;
+                    } else {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (containerKey > key) {
+                return false;
+            }
+            buffer.position(start + (cardinality > ARRAY_MAX ? BITMAP_WORDS * 8 : cardinality * 2));
+        }
+        return false;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, count, key);
+    }
+
+    /**
+     * Low 16 bits of the IDs sharing one key: sorted array until ARRAY_MAX, then bitmap
+     */
+    private static final class Container {
+
+        private char[] values = new char[4];
+
+        private long[] bits;
+
+        private int size;
+
+        boolean contains(char low) {
+            if (bits != null) {
+                return (bits[low >>> 6] & (1L << low)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        boolean add(char low) {
+            if (bits != null) {
+                long mask = 1L << low;
+                if ((bits[low >>> 6] & mask) != 0) {
+                    return false;
+                }
+                bits[low >>> 6] |= mask;
+                size++;
+                return true;
+            }
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index >= 0) {
+                return false;
+            }
+            if (size == ARRAY_MAX) {
+                toBitmap();
+                return add(low);
+            }
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_MAX));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = low;
+            size++;
+            return true;
+        }
+
+        void forEach(long high, LongConsumer action) {
+            if (bits != null) {
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    long remaining = bits[word];
+                    while (remaining != 0) {
+                        action.accept(high | (word << 6) | Long.numberOfTrailingZeros(remaining));
+                        remaining &= remaining - 1;
+                    }
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    action.accept(high | values[i]);
+                }
+            }
+        }
+
+        int serializedLength() {
+            return bits != null ? BITMAP_WORDS * 8 : size * 2;
+        }
+
+        private void toBitmap() {
+            bits = new long[BITMAP_WORDS];
+            for (int i = 0; i < size; i++) {
+                bits[values[i] >>> 6] |= 1L << values[i];
+            }
+            values = null;
+        }
+    }
+}
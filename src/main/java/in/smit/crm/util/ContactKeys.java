@@ -0,0 +1,55 @@
+package in.smit.crm.util;
+
+import java.util.Locale;
+
+/**
+ * Normalized email and phone keys used to spot the same person registered twice
+ * Email: trimmed and lower-cased; phone: E.164 (+ and digits), Indian numbers assumed without a country code
+ */
+public final class ContactKeys {
+
+    // Country code for 10-digit national numbers
+    private static final String DEFAULT_COUNTRY_CODE = "91";
+
+    private ContactKeys() {
+    }
+
+    // " John.Doe@Mail.com " -> "john.doe@mail.com", null when blank
+    public static String emailKey(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // "098765 43210", "+91-98765-43210", "0091 9876543210" -> "+919876543210", null without digits
+    public static String phoneKey(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.isEmpty()) {
+            return null;
+        }
+        if (phone.trim().startsWith("+")) {
+            return "+" + digits;
+        }
+        if (digits.length() > 2 && digits.charAt(0) == '0' && digits.charAt(1) == '0') {
+            return "+" + digits.substring(2);
+        }
+        // Trunk prefix of national numbers
+        if (digits.length() == 11 && digits.charAt(0) == '0') {
+            digits.deleteCharAt(0);
+        }
+        if (digits.length() == 10) {
+            return "+" + DEFAULT_COUNTRY_CODE + digits;
+        }
+        return "+" + digits;
+    }
+}
@@ -5,52 +5,88 @@ document.addEventListener("DOMContentLoaded", () => {
     // Chart colors for light/dark mode
     function getChartColors() {
         return html.getAttribute('data-bs-theme') === 'dark'
-            ? { gpa: 'rgba(13,110,253,0.9)', enroll: 'rgba(255,193,7,0.9)' }
-            : { gpa: 'rgba(13,110,253,0.7)', enroll: 'rgba(255,193,7,0.5)' };
+            ? { enroll: 'rgba(255,193,7,0.9)', attendance: 'rgba(25,135,84,0.9)' }
+            : { enroll: 'rgba(255,193,7,0.5)', attendance: 'rgba(25,135,84,0.7)' };
     }
 
+    // One color per payment method dataset
+    const methodColors = [
+        'rgba(13,110,253,0.7)', 'rgba(25,135,84,0.7)', 'rgba(255,193,7,0.7)',
+        'rgba(220,53,69,0.7)', 'rgba(13,202,240,0.7)', 'rgba(108,117,125,0.7)'
+    ];
+
     const colors = getChartColors();
 
-    // Student Performance (Bar Chart)
-    const ctx1 = document.getElementById('studentPerformanceChart').getContext('2d');
-    new Chart(ctx1, {
-        type: 'bar',
-        data: {
-            labels: ['Alice', 'Bob', 'Charlie', 'David', 'Eva'],
-            datasets: [{
-                label: 'GPA',
-                data: [3.8, 3.2, 3.5, 3.9, 3.6],
-                backgroundColor: colors.gpa,
-                borderRadius: 8
-            }]
-        },
-        options: {
-            responsive: true,
-            plugins: { legend: { display: false } },
-            scales: { y: { beginAtZero: true, max: 4 } }
+    // Load chart data after the page has painted, skip charts that are not on the page
+    function loadChart(canvasId, url, build) {
+        const canvas = document.getElementById(canvasId);
+        if (!canvas) {
+            return;
         }
+        fetch(url, { headers: { 'Accept': 'application/json' } })
+            .then(response => {
+                if (!response.ok) {
+                    throw new Error(response.status);
+                }
+                return response.json();
+            })
+            .then(data => new Chart(canvas.getContext('2d'), build(data)))
+            .catch(() => {
+                canvas.insertAdjacentHTML('afterend', '<p class="text-muted small mb-0">Chart data unavailable</p>');
+            });
+    }
+
+    // Enrollments per month (Line Chart)
+    loadChart('enrollmentChart', '/admin/charts/enrollments?months=12', data => {
+        data.datasets.forEach(ds => Object.assign(ds, {
+            borderColor: colors.enroll,
+            backgroundColor: colors.enroll,
+            tension: 0.4,
+            fill: true,
+            pointRadius: 5
+        }));
+        return {
+            type: 'line',
+            data: data,
+            options: {
+                responsive: true,
+                plugins: { legend: { display: true } },
+                scales: { y: { beginAtZero: true, ticks: { precision: 0 } } }
+            }
+        };
     });
 
-    // Course Analytics (Line Chart)
-    const ctx2 = document.getElementById('courseAnalyticsChart').getContext('2d');
-    new Chart(ctx2, {
-        type: 'line',
-        data: {
-            labels: ['Jan', 'Feb', 'Mar', 'Apr', 'May', 'Jun'],
-            datasets: [{
-                label: 'Enrollments',
-                data: [50, 65, 80, 70, 95, 110],
-                borderColor: colors.enroll,
-                backgroundColor: colors.enroll,
-                tension: 0.4,
-                fill: true,
-                pointRadius: 5
-            }]
-        },
-        options: {
-            responsive: true,
-            plugins: { legend: { display: true } },
-            scales: { y: { beginAtZero: true } }
-        }
+    // Revenue per month by payment method (Stacked Bar Chart)
+    loadChart('revenueChart', '/admin/charts/revenue?months=12', data => {
+        data.datasets.forEach((ds, i) => Object.assign(ds, {
+            backgroundColor: methodColors[i % methodColors.length],
+            borderRadius: 4
+        }));
+        return {
+            type: 'bar',
+            data: data,
+            options: {
+                responsive: true,
+                plugins: { legend: { display: true } },
+                scales: { x: { stacked: true }, y: { stacked: true, beginAtZero: true } }
+            }
+        };
+    });
+
+    // Attendance rate per course (Bar Chart)
+    loadChart('attendanceChart', '/admin/charts/attendance?days=30', data => {
+        data.datasets.forEach(ds => Object.assign(ds, {
+            backgroundColor: colors.attendance,
+            borderRadius: 8
+        }));
+        return {
+            type: 'bar',
+            data: data,
+            options: {
+                responsive: true,
+                plugins: { legend: { display: false } },
+                scales: { y: { beginAtZero: true, max: 100 } }
+            }
+        };
     });
 });
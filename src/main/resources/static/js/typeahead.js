@@ -0,0 +1,136 @@
+// Typeahead pickers for admin forms (replace full-table <select> dropdowns)
+// Markup: <div class="typeahead" data-url="/admin/lookup/students"> with an .typeahead-input text box,
+// a hidden input that receives the picked ID and an empty .typeahead-menu list.
+// data-multiple="studentIds" adds one hidden input per picked option to .typeahead-chosen instead.
+(function () {
+    const DELAY_MS = 200;
+
+    document.querySelectorAll('.typeahead').forEach(function (box) {
+        const input = box.querySelector('.typeahead-input');
+        const hidden = box.querySelector('input[type=hidden]');
+        const menu = box.querySelector('.typeahead-menu');
+        const chosen = box.querySelector('.typeahead-chosen');
+        const multiple = box.dataset.multiple;
+        let timer = null;
+        let lastRequest = 0;
+
+        function close() {
+            menu.innerHTML = '';
+        }
+
+        function pick(option) {
+            if (multiple) {
+                if (!chosen.querySelector('input[value="' + option.id + '"]')) {
+                    const badge = document.createElement('span');
+                    badge.className = 'badge bg-primary me-1 mb-1';
+                    badge.textContent = option.label + ' ';
+
+                    const remove = document.createElement('i');
+                    remove.className = 'bi bi-x-circle';
+                    remove.style.cursor = 'pointer';
+                    remove.addEventListener('click', function () {
+                        badge.remove();
+                    });
+
+                    const field = document.createElement('input');
+                    field.type = 'hidden';
+                    field.name = multiple;
+                    field.value = option.id;
+
+                    badge.append(remove, field);
+                    chosen.append(badge);
+                }
+                input.value = '';
+            } else {
+                hidden.value = option.id;
+                input.value = option.label;
+                input.setCustomValidity('');
+            }
+            close();
+        }
+
+        function show(options) {
+            close();
+            if (options.length === 0) {
+                const empty = document.createElement('div');
+                empty.className = 'list-group-item text-muted';
+                empty.textContent = 'No matches';
+                menu.append(empty);
+                return;
+            }
+            options.forEach(function (option) {
+                const item = document.createElement('button');
+                item.type = 'button';
+                item.className = 'list-group-item list-group-item-action';
+                item.textContent = option.label;
+                // mousedown fires before the input's blur closes the menu
+                item.addEventListener('mousedown', function (event) {
+                    event.preventDefault();
+                    pick(option);
+                });
+                menu.append(item);
+            });
+        }
+
+        function load(query) {
+            const requestId = ++lastRequest;
+            const url = new URL(box.dataset.url, window.location.origin);
+            url.searchParams.set('q', query);
+            fetch(url, { headers: { 'Accept': 'application/json' } })
+                .then(function (response) {
+                    return response.ok ? response.json() : [];
+                })
+                .then(function (options) {
+                    // Answers to older keystrokes may arrive late
+                    if (requestId === lastRequest) {
+                        show(options);
+                    }
+                });
+        }
+
+        input.addEventListener('input', function () {
+            if (!multiple) {
+                hidden.value = '';
+            }
+            clearTimeout(timer);
+            const query = input.value.trim();
+            if (query === '') {
+                lastRequest++;
+                close();
+                return;
+            }
+            timer = setTimeout(function () {
+                load(query);
+            }, DELAY_MS);
+        });
+
+        // Enter picks the first suggestion instead of submitting the form
+        input.addEventListener('keydown', function (event) {
+            if (event.key === 'Enter') {
+                const first = menu.querySelector('button');
+                event.preventDefault();
+                if (first) {
+                    first.dispatchEvent(new MouseEvent('mousedown'));
+                }
+            } else if (event.key === 'Escape') {
+                close();
+            }
+        });
+
+        input.addEventListener('blur', close);
+
+        // Typed text that was never picked from the list doesn't count as a choice
+        if (!multiple && input.required) {
+            input.form.addEventListener('submit', function (event) {
+                if (!hidden.value) {
+                    event.preventDefault();
+                    input.setCustomValidity('Pick one of the suggestions');
+                    input.reportValidity();
+                }
+            });
+            input.addEventListener('input', function () {
+                input.setCustomValidity('');
+            });
+        }
+    });
+})();
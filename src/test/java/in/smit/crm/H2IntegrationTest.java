@@ -0,0 +1,72 @@
+package in.smit.crm;
+
+import in.smit.crm.entity.Course;
+import in.smit.crm.entity.Enrollment;
+import in.smit.crm.entity.Student;
+import in.smit.crm.entity.User;
+import in.smit.crm.repository.RoleRepository;
+import in.smit.crm.repository.StudentRepository;
+import in.smit.crm.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Base for tests that need the full Spring context
+ * Runs against in-memory H2 (MySQL mode) so it needs no database server;
+ * each subclass names its own database with @TestPropertySource(properties = "test.database=...")
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:${test.database};MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=30000;NON_KEYWORDS=USER,VALUE,MONTH,YEAR,DATE,STATUS",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+public abstract class H2IntegrationTest {
+
+    @Autowired
+    protected StudentRepository studentRepository;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected RoleRepository roleRepository;
+
+    // Save a student and their user account, name + i is the username and email
+    protected Student createStudent(String name, int i) {
+        String username = name.toLowerCase(Locale.ROOT) + i;
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setRole(roleRepository.findAll().get(0));
+        userRepository.save(user);
+
+        Student student = new Student();
+        student.setFirstName(name);
+        student.setLastName("Student" + i);
+        student.setEmail(username + "@example.com");
+        student.setPhone("98765" + i);
+        student.setDob(LocalDate.of(2000, 1, 1));
+        student.setUser(user);
+        return studentRepository.save(student);
+    }
+
+    // Unsaved enrollment referring to a student and course by ID only, as the enrollment form posts it
+    protected Enrollment newEnrollment(Long studentId, Long courseId) {
+        Student student = new Student();
+        student.setId(studentId);
+        Course course = new Course();
+        course.setId(courseId);
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudent(student);
+        enrollment.setCourse(course);
+        return enrollment;
+    }
+}
@@ -0,0 +1,136 @@
+package in.smit.crm.controller;
+
+import in.smit.crm.H2IntegrationTest;
+import in.smit.crm.entity.Attendance;
+import in.smit.crm.entity.AttendanceStatus;
+import in.smit.crm.entity.Course;
+import in.smit.crm.entity.Enrollment;
+import in.smit.crm.entity.Payment;
+import in.smit.crm.entity.PaymentMethod;
+import in.smit.crm.entity.PaymentStatus;
+import in.smit.crm.entity.Role;
+import in.smit.crm.entity.Student;
+import in.smit.crm.entity.User;
+import in.smit.crm.repository.CourseRepository;
+import in.smit.crm.service.AttendanceService;
+import in.smit.crm.service.EnrollmentService;
+import in.smit.crm.service.NotificationService;
+import in.smit.crm.service.PaymentService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Renders every admin and student page with open-in-view off
+ * A lazy association touched by a template fails the render instead of running SQL
+ */
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = { "test.database=pages", "spring.jpa.open-in-view=false" })
+class PageRenderingTest extends H2IntegrationTest {
+
+    private static final int STUDENTS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    // One course with three students, each enrolled with one attendance and one payment; "pupil0" logs in as a student
+    // The database is fresh, so every seeded row has ID 1 in its table
+    @BeforeAll
+    void seed() {
+        Role studentRole = new Role();
+        studentRole.setRoleName("STUDENT");
+        studentRole = roleRepository.save(studentRole);
+
+        Course course = new Course();
+        course.setCourseName("Java Full Stack");
+        course.setDuration(6);
+        course.setFees(new BigDecimal("1000.00"));
+        course.setStartDate(LocalDate.now().minusDays(10));
+        course.setEndDate(LocalDate.now().plusMonths(6));
+        course = courseRepository.save(course);
+
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = createStudent("Pupil", i);
+            User user = student.getUser();
+            user.setRole(studentRole);
+            userRepository.save(user);
+
+            Enrollment enrollment = enrollmentService.saveEnrollment(newEnrollment(student.getId(), course.getId()));
+            Attendance attendance = new Attendance();
+            attendance.setDate(LocalDate.now());
+            attendance.setStatus(AttendanceStatus.PRESENT);
+            attendance.setEnrollment(enrollment);
+            attendanceService.saveAttendance(attendance);
+
+            Payment payment = new Payment();
+            payment.setAmount(new BigDecimal("100.00"));
+            payment.setPaymentMethod(PaymentMethod.UPI);
+            payment.setStatus(PaymentStatus.COMPLETED);
+            payment.setStudent(student);
+            paymentService.savePayment(payment);
+        }
+        notificationService.createNotification("Welcome", "Classes start Monday");
+        notificationService.createStudentNotification(1L, "Fees", "Your receipt is ready");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/admin/dashboard",
+            "/admin/students", "/admin/students/add", "/admin/students/edit/1", "/admin/students/view/1",
+            "/admin/students/search?keyword=pupil", "/admin/students/onboard", "/admin/students/duplicates",
+            "/admin/courses", "/admin/courses/add", "/admin/courses/edit/1", "/admin/courses/view/1",
+            "/admin/enrollments", "/admin/enrollments/add", "/admin/enrollments/edit/1",
+            "/admin/enrollments/bulk", "/admin/enrollments/waitlist", "/admin/enrollments/waitlist?courseId=1",
+            "/admin/attendance", "/admin/attendance/mark", "/admin/attendance/edit/1",
+            "/admin/attendance/roster?courseId=1", "/admin/attendance/import", "/admin/charts/attendance",
+            "/admin/payments", "/admin/payments/add", "/admin/payments/edit/1", "/admin/payments/defaulters",
+            "/admin/notifications", "/admin/notifications/add", "/admin/cache/stats",
+            "/admin/lookup/students?q=pupil", "/admin/lookup/courses?q=java", "/admin/lookup/enrollments?q=pupil",
+            // Hand-edited cursors read as the first page
+            "/admin/attendance?cursor=2024-13-45|1", "/admin/enrollments?cursor=yesterday|1",
+            "/admin/payments?cursor=2024-01-01|x", "/admin/students?cursor=nobar",
+            "/admin/payments/defaulters?cursor=lots|1"
+    })
+    @WithUserDetails("admin")
+    void rendersAdminPage(String url) throws Exception {
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/student/dashboard", "/student/my-courses", "/student/my-attendance", "/student/my-payments",
+            "/student/notifications"
+    })
+    @WithUserDetails("pupil0")
+    void rendersStudentPage(String url) throws Exception {
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+    }
+}
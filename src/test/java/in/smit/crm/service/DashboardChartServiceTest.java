@@ -0,0 +1,44 @@
+package in.smit.crm.service;
+
+import in.smit.crm.dto.ChartData;
+import in.smit.crm.entity.AttendanceStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the attendance-by-course chart against hand-made roll-up totals
+ * No Spring context, the roll-up service is a mock
+ */
+class DashboardChartServiceTest {
+
+    @Test
+    void keepsCoursesWithTheSameNameApart() {
+        AttendanceRollupService rollupService = mock(AttendanceRollupService.class);
+        when(rollupService.getCourseTotals(any(), any())).thenReturn(List.of(
+                row(1L, "Java Programming", AttendanceStatus.PRESENT, 9),
+                row(1L, "Java Programming", AttendanceStatus.ABSENT, 1),
+                row(2L, "Java Programming", AttendanceStatus.PRESENT, 1),
+                row(2L, "Java Programming", AttendanceStatus.ABSENT, 3),
+                row(3L, "Python", AttendanceStatus.PRESENT, 2)));
+        DashboardChartService service = new DashboardChartService();
+        ReflectionTestUtils.setField(service, "attendanceRollupService", rollupService);
+
+        ChartData chart = service.getAttendanceRateByCourse(30);
+
+        assertEquals(List.of("Java Programming (#1)", "Java Programming (#2)", "Python"), chart.getLabels());
+        assertEquals(List.of(new BigDecimal("90.0"), new BigDecimal("25.0"), new BigDecimal("100.0")),
+                chart.getDatasets().get(0).getData());
+    }
+
+    private static Object[] row(Long courseId, String courseName, AttendanceStatus status, long count) {
+        return new Object[] { courseId, courseName, status, count };
+    }
+}
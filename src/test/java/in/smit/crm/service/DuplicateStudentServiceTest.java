@@ -0,0 +1,74 @@
+package in.smit.crm.service;
+
+import in.smit.crm.util.ContactKeys;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks contact key normalization and the union-find clustering
+ * No Spring context, rows are fed straight into the clustering
+ */
+class DuplicateStudentServiceTest {
+
+    @Test
+    void normalizesEmailAndPhone() {
+        assertEquals("john.doe@mail.com", ContactKeys.emailKey("  John.Doe@Mail.COM "));
+        assertNull(ContactKeys.emailKey(" "));
+
+        assertEquals("+919876543210", ContactKeys.phoneKey("98765 43210"));
+        assertEquals("+919876543210", ContactKeys.phoneKey("098765-43210"));
+        assertEquals("+919876543210", ContactKeys.phoneKey("+91 (98765) 43210"));
+        assertEquals("+919876543210", ContactKeys.phoneKey("0091 9876543210"));
+        assertEquals("+919876543210", ContactKeys.phoneKey("919876543210"));
+        assertEquals("+14155550100", ContactKeys.phoneKey("+1 415-555-0100"));
+        assertNull(ContactKeys.phoneKey("n/a"));
+    }
+
+    @Test
+    void joinsStudentsThroughSharedKeys() {
+        List<Object[]> rows = List.of(
+                row(1L, "a@mail.com", "+911111111111"),
+                row(2L, "b@mail.com", "+912222222222"),
+                // same email as 1
+                row(3L, "a@mail.com", "+913333333333"),
+                // same phone as 3, so joins 1 too
+                row(4L, "d@mail.com", "+913333333333"),
+                row(5L, "e@mail.com", null),
+                // same phone as 2
+                row(6L, "f@mail.com", "+912222222222"),
+                row(7L, null, null));
+
+        List<long[]> clusters = DuplicateStudentService.cluster(rows.iterator());
+
+        assertEquals(2, clusters.size());
+        assertArrayEquals(new long[] { 1, 3, 4 }, clusters.get(0));
+        assertArrayEquals(new long[] { 2, 6 }, clusters.get(1));
+    }
+
+    @Test
+    void mergesLargeChainsAcrossBothKeys() {
+        // Student i shares its email with i - 1 when i is odd, its phone when i is even: one chain
+        List<Object[]> rows = new ArrayList<>();
+        for (long i = 1; i <= 5_000; i++) {
+            rows.add(row(i, "e" + (i - i % 2) + "@mail.com", "+91" + (i - 1 + i % 2)));
+        }
+        rows.add(row(9_999L, "alone@mail.com", "+910"));
+
+        List<long[]> clusters = DuplicateStudentService.cluster(rows.iterator());
+
+        assertEquals(1, clusters.size());
+        assertEquals(5_000, clusters.get(0).length);
+        assertEquals(1, clusters.get(0)[0]);
+        assertEquals(5_000, clusters.get(0)[4_999]);
+    }
+
+    private static Object[] row(Long id, String emailKey, String phoneKey) {
+        return new Object[] { id, emailKey, phoneKey };
+    }
+}
@@ -0,0 +1,132 @@
+package in.smit.crm.service;
+
+import in.smit.crm.H2IntegrationTest;
+import in.smit.crm.entity.Course;
+import in.smit.crm.entity.EnrollmentStatus;
+import in.smit.crm.repository.CourseRepository;
+import in.smit.crm.repository.EnrollmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads enroll different students into one course at the same moment
+ */
+@TestPropertySource(properties = "test.database=seats")
+class EnrollmentServiceConcurrencyTest extends H2IntegrationTest {
+
+    private static final int CAPACITY = 10;
+
+    private static final int THREADS = 16;
+
+    private static final int STUDENTS = 60;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Test
+    void concurrentEnrollmentsNeverOversellCourse() throws Exception {
+        Course course = new Course();
+        course.setCourseName("Rush Course");
+        course.setDuration(3);
+        course.setFees(new BigDecimal("1000.00"));
+        course.setStartDate(LocalDate.now());
+        course.setEndDate(LocalDate.now().plusMonths(3));
+        course.setCapacity(CAPACITY);
+        Long courseId = courseRepository.save(course).getId();
+
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            studentIds.add(createStudent("Rush", i).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    enrollmentService.saveEnrollment(newEnrollment(studentId, courseId));
+                    enrolled.incrementAndGet();
+                } catch (RuntimeException e) {
+                    assertEquals("Course is full!", e.getMessage());
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(CAPACITY, enrolled.get());
+        assertEquals(STUDENTS - CAPACITY, rejected.get());
+        assertEquals(CAPACITY, courseRepository.findById(courseId).orElseThrow().getSeatsTaken());
+        assertEquals(CAPACITY, enrollmentRepository.findByCourseId(courseId).size());
+    }
+
+    @Test
+    void concurrentDuplicateEnrollmentsKeepOne() throws Exception {
+        Course course = new Course();
+        course.setCourseName("Open Course");
+        course.setDuration(3);
+        course.setFees(new BigDecimal("500.00"));
+        course.setStartDate(LocalDate.now());
+        course.setEndDate(LocalDate.now().plusMonths(3));
+        Long courseId = courseRepository.save(course).getId();
+        Long studentId = createStudent("Rush", STUDENTS).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger enrolled = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    enrollmentService.saveEnrollment(newEnrollment(studentId, courseId));
+                    enrolled.incrementAndGet();
+                } catch (RuntimeException e) {
+                    assertEquals("Student is already enrolled in this course!", e.getMessage());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, enrolled.get());
+        assertEquals(1, courseRepository.findById(courseId).orElseThrow().getSeatsTaken());
+        assertTrue(enrollmentRepository.existsByStudentIdAndCourseIdAndStatus(studentId, courseId, EnrollmentStatus.ACTIVE));
+    }
+}
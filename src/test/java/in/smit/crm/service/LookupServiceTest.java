@@ -0,0 +1,76 @@
+package in.smit.crm.service;
+
+import in.smit.crm.H2IntegrationTest;
+import in.smit.crm.dto.LookupOption;
+import in.smit.crm.entity.Course;
+import in.smit.crm.entity.Enrollment;
+import in.smit.crm.entity.EnrollmentStatus;
+import in.smit.crm.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The enrollment picker must reach ACTIVE enrollments of students ranked below
+ * a full page of matches that have none (alumni, students of other courses)
+ */
+@TestPropertySource(properties = "test.database=lookup")
+class LookupServiceTest extends H2IntegrationTest {
+
+    private static final int ALUMNI = 30;
+
+    @Autowired
+    private LookupService lookupService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentSearchIndex studentSearchIndex;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Test
+    void findsActiveEnrollmentsBehindTopMatches() {
+        Long javaId = createCourse("Java").getId();
+        Long pythonId = createCourse("Python").getId();
+
+        // Saved first, so they fill the index's first pages for "john"
+        for (int i = 0; i < ALUMNI; i++) {
+            Enrollment enrollment = enrollmentService.saveEnrollment(
+                    newEnrollment(createStudent("John", i).getId(), javaId));
+            enrollment.setStatus(EnrollmentStatus.COMPLETED);
+            enrollmentService.saveEnrollment(enrollment);
+        }
+        Long activeId = enrollmentService.saveEnrollment(
+                newEnrollment(createStudent("John", ALUMNI).getId(), javaId)).getId();
+        Long otherCourseId = enrollmentService.saveEnrollment(
+                newEnrollment(createStudent("John", ALUMNI + 1).getId(), pythonId)).getId();
+        studentSearchIndex.rebuild();
+
+        List<LookupOption> options = lookupService.findEnrollments("john", null, 10);
+        assertEquals(List.of(activeId, otherCourseId), options.stream().map(LookupOption::getId).toList());
+
+        options = lookupService.findEnrollments("john", javaId, 10);
+        assertEquals(List.of(activeId), options.stream().map(LookupOption::getId).toList());
+
+        assertEquals(List.of(), lookupService.findEnrollments("nobody", null, 10));
+    }
+
+    private Course createCourse(String name) {
+        Course course = new Course();
+        course.setCourseName(name);
+        course.setDuration(3);
+        course.setFees(new BigDecimal("1000.00"));
+        course.setStartDate(LocalDate.now());
+        course.setEndDate(LocalDate.now().plusMonths(3));
+        return courseRepository.save(course);
+    }
+}
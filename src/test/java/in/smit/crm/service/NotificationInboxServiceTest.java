@@ -0,0 +1,74 @@
+package in.smit.crm.service;
+
+import in.smit.crm.H2IntegrationTest;
+import in.smit.crm.entity.Course;
+import in.smit.crm.entity.Notification;
+import in.smit.crm.entity.NotificationAudience;
+import in.smit.crm.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mark all read must clear the unread badge even when it counts more
+ * notifications than the inbox lists
+ */
+@TestPropertySource(properties = "test.database=inbox")
+class NotificationInboxServiceTest extends H2IntegrationTest {
+
+    // More than the inbox lists (NotificationInboxService.INBOX_LIMIT)
+    private static final int TARGETED = 130;
+
+    @Autowired
+    private NotificationInboxService notificationInboxService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Test
+    void markAllReadClearsNotificationsPastTheInboxPage() {
+        Long studentId = createStudent("Reader", 0).getId();
+        Long otherId = createStudent("Reader", 1).getId();
+        for (int i = 0; i < TARGETED; i++) {
+            notificationService.createStudentNotification(studentId, "Notice " + i, "Details");
+        }
+        notificationService.createNotification("Holiday", "Campus closed Friday");
+        Long readId = notificationService.createStudentNotification(studentId, "Read already", "Details").getId();
+        notificationInboxService.markRead(studentId, readId);
+        // Sent to a course the student isn't in
+        notificationService.sendNotification(courseNotification(), createCourse().getId());
+
+        assertEquals(TARGETED + 1, notificationInboxService.getUnreadCount(studentId));
+        assertEquals(TARGETED + 1, notificationInboxService.markAllRead(studentId));
+        assertEquals(0, notificationInboxService.getUnreadCount(studentId));
+        assertEquals(0, notificationInboxService.markAllRead(studentId));
+        // The broadcast is still unread for everyone else
+        assertEquals(1, notificationInboxService.getUnreadCount(otherId));
+    }
+
+    private Notification courseNotification() {
+        Notification notification = new Notification();
+        notification.setTitle("Lab moved");
+        notification.setMessage("Room 4");
+        notification.setAudience(NotificationAudience.COURSE);
+        return notification;
+    }
+
+    private Course createCourse() {
+        Course course = new Course();
+        course.setCourseName("Networks");
+        course.setDuration(3);
+        course.setFees(new BigDecimal("1000.00"));
+        course.setStartDate(LocalDate.now());
+        course.setEndDate(LocalDate.now().plusMonths(3));
+        return courseRepository.save(course);
+    }
+}
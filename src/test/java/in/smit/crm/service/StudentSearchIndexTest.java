@@ -0,0 +1,143 @@
+package in.smit.crm.service;
+
+import in.smit.crm.event.StudentChangedEvent;
+import in.smit.crm.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the trigram index against plain substring matching
+ * No Spring context, events are fed straight into the index
+ */
+class StudentSearchIndexTest {
+
+    private StudentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new StudentSearchIndex();
+        save(1L, "John", "Smith", "john.smith@mail.com", "+91 98765 43210");
+        save(2L, "Johnny", "Cash", "cash@mail.com", "9000000001");
+        save(3L, "Anna", "Johnson", "anna@mail.com", "9000000002");
+        save(4L, "Peter", "Parker", "spidey.john@mail.com", "9000000003");
+    }
+
+    @Test
+    void ranksNameMatchesBeforeEmailMatches() {
+        // name starts > name word starts > email word starts
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.search("joh", 10));
+        assertEquals(List.of(3L), index.search("NSON", 10));
+        assertEquals(List.of(1L, 2L), index.search("joh", 2));
+    }
+
+    @Test
+    void matchesEmailAndPhone() {
+        assertEquals(List.of(4L), index.search("spidey", 10));
+        assertEquals(List.of(1L), index.search("98765-432", 10));
+        // same rank, so by name
+        assertEquals(List.of(3L, 2L, 4L), index.search("900000000", 10));
+    }
+
+    @Test
+    void shortQueriesMatchWordStarts() {
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.search("j", 10));
+        assertEquals(List.of(1L, 4L), index.search("s", 10));
+        assertEquals(List.of(2L), index.search("ca", 10));
+        assertEquals(List.of(), index.search("hn", 10));
+    }
+
+    @Test
+    void dropsTrigramFalsePositives() {
+        // "abca cab" holds every trigram of "abcab", but not the query itself
+        save(5L, "Abca", "Cab", "x@mail.com", null);
+        assertEquals(List.of(), index.search("abcab", 10));
+        assertEquals(List.of(5L), index.search("abca c", 10));
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        save(2L, "Jane", "Cash", "cash@mail.com", "9000000001");
+        index.onStudentChanged(new StudentChangedEvent(1L, null, null, null, null, true));
+
+        assertEquals(List.of(3L, 4L), index.search("john", 10));
+        assertEquals(List.of(2L), index.search("jane", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void staysConsistentThroughChurnAndCompaction() {
+        Random random = new Random(42);
+        Map<Long, String> lastNames = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = 100 + random.nextInt(3_000);
+            if (random.nextInt(4) == 0) {
+                index.onStudentChanged(new StudentChangedEvent(id, null, null, null, null, true));
+                lastNames.remove(id);
+            } else {
+                String lastName = "zq" + random.nextInt(50);
+                save(id, "Student", lastName, id + "@mail.com", null);
+                lastNames.put(id, lastName);
+            }
+        }
+
+        assertEquals(lastNames.size() + 4, index.size());
+        long expected = lastNames.values().stream().filter("zq7"::equals).count();
+        long found = index.search("zq7", 10_000).stream().filter(id -> "zq7".equals(lastNames.get(id))).count();
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void keepsOldSegmentWhenRebuildFails() {
+        StudentRepository studentRepository = mock(StudentRepository.class);
+        when(studentRepository.count()).thenReturn(5L);
+        when(studentRepository.streamSearchFields()).thenReturn(Stream.of(
+                new Object[] { 1L, "John", "Smith", "john.smith@mail.com", "9876543210" },
+                new Object[] { 9L, "Half", "Built", "half@mail.com", null }).map(row -> {
+                    if ((Long) row[0] == 9L) {
+                        throw new IllegalStateException("connection lost");
+                    }
+                    return row;
+                }));
+        ReflectionTestUtils.setField(index, "studentRepository", studentRepository);
+
+        assertThrows(IllegalStateException.class, () -> index.rebuild());
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.search("joh", 10));
+        // Nothing is left queueing changes for a rebuild that never lands
+        save(5L, "Jane", "Doe", "jane@mail.com", null);
+        assertNull(ReflectionTestUtils.getField(index, "pending"));
+    }
+
+    @Test
+    void longIntMapSurvivesRemovals() {
+        StudentSearchIndex.LongIntMap map = new StudentSearchIndex.LongIntMap(4);
+        for (int i = 1; i <= 10_000; i++) {
+            map.put(i, i * 2);
+        }
+        for (int i = 1; i <= 10_000; i += 2) {
+            assertEquals(i * 2, map.remove(i));
+        }
+        for (int i = 1; i <= 10_000; i++) {
+            assertEquals(i % 2 == 0 ? i * 2 : -1, map.get(i));
+        }
+        assertEquals(5_000, map.size());
+    }
+
+    private void save(Long id, String firstName, String lastName, String email, String phone) {
+        index.onStudentChanged(new StudentChangedEvent(id, firstName, lastName, email, phone, false));
+    }
+}
@@ -0,0 +1,111 @@
+package in.smit.crm.service;
+
+import in.smit.crm.H2IntegrationTest;
+import in.smit.crm.entity.Course;
+import in.smit.crm.entity.Enrollment;
+import in.smit.crm.entity.EnrollmentStatus;
+import in.smit.crm.entity.WaitlistEntry;
+import in.smit.crm.entity.WaitlistStatus;
+import in.smit.crm.repository.CourseRepository;
+import in.smit.crm.repository.EnrollmentRepository;
+import in.smit.crm.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every ACTIVE student of a full course drops at the same moment
+ * The freed seats must go to the head of the waitlist, in order, without overselling
+ */
+@TestPropertySource(properties = "test.database=waitlist")
+class WaitlistServiceConcurrencyTest extends H2IntegrationTest {
+
+    private static final int CAPACITY = 5;
+
+    private static final int WAITING = 12;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Test
+    void concurrentDropsPromoteWaitlistInOrder() throws Exception {
+        Course course = new Course();
+        course.setCourseName("Queue Course");
+        course.setDuration(3);
+        course.setFees(new BigDecimal("1000.00"));
+        course.setStartDate(LocalDate.now());
+        course.setEndDate(LocalDate.now().plusMonths(3));
+        course.setCapacity(CAPACITY);
+        Long courseId = courseRepository.save(course).getId();
+
+        List<Long> enrollmentIds = new ArrayList<>();
+        for (int i = 0; i < CAPACITY; i++) {
+            enrollmentIds.add(enrollmentService.saveEnrollment(newEnrollment(createStudent("Queue", i).getId(), courseId)).getId());
+        }
+        List<Long> waitingIds = new ArrayList<>();
+        for (int i = CAPACITY; i < CAPACITY + WAITING; i++) {
+            waitingIds.add(waitlistService.joinWaitlist(createStudent("Queue", i).getId(), courseId).getId());
+        }
+        assertEquals(WAITING, waitlistService.getQueue(courseId).size());
+
+        ExecutorService pool = Executors.newFixedThreadPool(CAPACITY);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long enrollmentId : enrollmentIds) {
+            futures.add(pool.submit(() -> {
+                Enrollment enrollment = enrollmentService.getEnrollmentById(enrollmentId);
+                enrollment.setStatus(EnrollmentStatus.DROPPED);
+                start.await();
+                enrollmentService.saveEnrollment(enrollment);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // First CAPACITY in line got the seats, the rest still wait
+        for (int i = 0; i < WAITING; i++) {
+            WaitlistEntry entry = waitlistEntryRepository.findById(waitingIds.get(i)).orElseThrow();
+            assertEquals(i < CAPACITY ? WaitlistStatus.PROMOTED : WaitlistStatus.WAITING, entry.getStatus());
+        }
+        assertEquals(CAPACITY, courseRepository.findById(courseId).orElseThrow().getSeatsTaken());
+        assertEquals(CAPACITY, enrollmentRepository.countByStatus(EnrollmentStatus.ACTIVE));
+
+        // Deleting a promoted enrollment hands its seat to the next in line
+        Long promotedEnrollmentId = enrollmentRepository.findByStatus(EnrollmentStatus.ACTIVE).get(0).getId();
+        enrollmentService.deleteEnrollment(promotedEnrollmentId);
+        assertEquals(WaitlistStatus.PROMOTED,
+                waitlistEntryRepository.findById(waitingIds.get(CAPACITY)).orElseThrow().getStatus());
+        assertEquals(CAPACITY, enrollmentRepository.countByStatus(EnrollmentStatus.ACTIVE));
+        assertEquals(WAITING - CAPACITY - 1, waitlistService.getQueue(courseId).size());
+    }
+}
@@ -0,0 +1,86 @@
+package in.smit.crm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the compact ID set against a TreeSet, across array and bitmap containers and serialization
+ */
+class CompactIdSetTest {
+
+    @Test
+    void matchesTreeSetAcrossContainerKinds() {
+        Random random = new Random(7);
+        CompactIdSet set = new CompactIdSet();
+        TreeSet<Long> expected = new TreeSet<>();
+        // dense block (bitmap container), sparse IDs (array containers) and the edges of a container
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(3) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(30_000);
+            assertEquals(expected.add(id), set.add(id));
+        }
+        for (long id : new long[] { 0, 65_535, 65_536, Integer.MAX_VALUE }) {
+            assertEquals(expected.add(id), set.add(id));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (int i = 0; i < 50_000; i++) {
+            long id = i % 2 == 0 ? random.nextInt(70_000) : random.nextInt(Integer.MAX_VALUE);
+            assertEquals(expected.contains(id), set.contains(id));
+        }
+        assertEquals(new ArrayList<>(expected), toList(set));
+
+        byte[] bytes = set.toBytes();
+        for (int i = 0; i < 50_000; i++) {
+            long id = i % 2 == 0 ? random.nextInt(70_000) : random.nextInt(Integer.MAX_VALUE);
+            assertEquals(expected.contains(id), CompactIdSet.contains(bytes, id));
+        }
+        for (long id : expected) {
+            assertTrue(CompactIdSet.contains(bytes, id));
+        }
+    }
+
+    @Test
+    void survivesSerialization() {
+        CompactIdSet set = new CompactIdSet();
+        for (long id = 1; id <= 10_000; id++) {
+            set.add(id * 3);
+        }
+        set.add(5_000_000);
+
+        CompactIdSet copy = CompactIdSet.fromBytes(set.toBytes());
+        assertEquals(set.size(), copy.size());
+        assertEquals(toList(set), toList(copy));
+        assertTrue(copy.add(7));
+        assertFalse(copy.add(5_000_000));
+
+        assertTrue(CompactIdSet.fromBytes(null).isEmpty());
+        assertEquals(List.of(1L, 2L), toList(CompactIdSet.fromBytes(CompactIdSet.of(2, 1).toBytes())));
+    }
+
+    @Test
+    void staysSmallForDenseIds() {
+        CompactIdSet set = new CompactIdSet();
+        for (long id = 1; id <= 500_000; id++) {
+            set.add(id);
+        }
+        // 8 containers of 8 KB instead of 500k rows or 4 MB of longs
+        assertTrue(set.toBytes().length < 70_000);
+        assertThrows(IllegalArgumentException.class, () -> set.add(-1));
+        assertFalse(set.contains(1L << 40));
+    }
+
+    private static List<Long> toList(CompactIdSet set) {
+        List<Long> ids = new ArrayList<>();
+        set.forEach(ids::add);
+        return ids;
+    }
+}